@@ -1,16 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import static ru.practicum.shareit.util.Util.*;
@@ -20,33 +25,44 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient,
+                         @Value("${shareit-gateway.client.passthrough:true}") boolean passthrough,
+                         ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                passthrough,
+                responseCache,
+                API_PREFIX, "/items"
         );
     }
 
-    public ResponseEntity<Object> getBookings(String url, long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookings(String url, long userId, BookingState state, Integer from, Integer size,
+                                                    String after, boolean withTotal) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 STATE, state.name(),
                 FROM, from,
                 SIZE, size
-        );
-        return get(url, userId, parameters);
+        ));
+        if (after == null)
+            return get(url, userId, parameters, withTotal);
+        parameters.put(AFTER, after);
+        return get(url + "&after={after}", userId, parameters, withTotal);
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> updateBooking(Long userId, Long bookingId, boolean isApproved) {
+    public Mono<ResponseEntity<Object>> updateBooking(Long userId, Long bookingId, boolean isApproved) {
         Map<String, Object> parameters = Map.of(
                 "approved", isApproved
         );
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -28,45 +29,49 @@ public class BookingController {
     private final static String URL_NEW = "/owner?state={state}&from={from}&size={size}";
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(USER_ID) long userId,
-                                              @RequestParam(name = STATE, defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = FROM, defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = SIZE, defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader(USER_ID) long userId,
+                                                    @RequestParam(name = STATE, defaultValue = "all") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = FROM, defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = SIZE, defaultValue = "10") Integer size,
+                                                    @RequestParam(name = AFTER, required = false) String after,
+                                                    @RequestHeader(name = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(URL, userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, userId, from, size, after);
+        return bookingClient.getBookings(URL, userId, state, from, size, after, withTotal);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(USER_ID) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(USER_ID) long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(USER_ID) long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwner(@RequestHeader(USER_ID) long ownerId,
-                                                     @RequestParam(name = STATE, defaultValue = "all") String stateParam,
-                                                     @PositiveOrZero @RequestParam(name = FROM, defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(name = SIZE, defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(@RequestHeader(USER_ID) long ownerId,
+                                                           @RequestParam(name = STATE, defaultValue = "all") String stateParam,
+                                                           @PositiveOrZero @RequestParam(name = FROM, defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(name = SIZE, defaultValue = "10") Integer size,
+                                                           @RequestParam(name = AFTER, required = false) String after,
+                                                           @RequestHeader(name = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         BookingState state = ru.practicum.shareit.booking.dto.BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, ownerId, from, size);
-        return bookingClient.getBookings(URL_NEW, ownerId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, ownerId, from, size, after);
+        return bookingClient.getBookings(URL_NEW, ownerId, state, from, size, after, withTotal);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@RequestHeader(USER_ID) Long userId,
-                                                @PathVariable Long bookingId,
-                                                @RequestParam(value = "approved") String approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(@RequestHeader(USER_ID) Long userId,
+                                                      @PathVariable Long bookingId,
+                                                      @RequestParam(value = "approved") String approved) {
         boolean isApproved = approved.equals("true");
         log.info("Получен запрос на обновление бронирования с id: {}", bookingId);
         return bookingClient.updateBooking(userId, bookingId, isApproved);
@@ -1,107 +1,211 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static ru.practicum.shareit.util.Util.TOTAL_COUNT;
 
 public class BaseClient {
     protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
+    @Nullable
+    private final WebClient webClient;
+    private final boolean passthrough;
+    private final ResponseCache responseCache;
+    private final String[] invalidatedPaths;
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, boolean passthrough,
+                      ResponseCache responseCache, String... invalidatedPaths) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+        this.responseCache = responseCache;
+        this.invalidatedPaths = invalidatedPaths;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters, boolean withTotal) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, withTotal);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, userId, parameters, body, false);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, boolean withTotal) {
+        HttpHeaders headers = defaultHeaders(userId, withTotal);
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
 
+        if (method == HttpMethod.GET && responseCache.isEnabled()) {
+            return sendCachedRequest(uri, headers);
+        }
+        return exchange(method, uri, headers, body)
+                .doOnNext(response -> {
+                    if (method != HttpMethod.GET && response.getStatusCode().is2xxSuccessful()) {
+                        responseCache.invalidate(invalidatedPaths);
+                    }
+                });
+    }
+
+    private Mono<ResponseEntity<Object>> sendCachedRequest(URI uri, HttpHeaders headers) {
+        String prefix = cachePrefix(uri);
+        String key = cacheKey(uri, headers);
+        ResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null && responseCache.isFresh(cached)) {
+            return Mono.just(cached.toResponse());
+        }
+        if (cached != null && cached.getHeaders().getETag() != null) {
+            headers.setIfNoneMatch(cached.getHeaders().getETag());
+        }
+
+        long generation = responseCache.generation(prefix);
+        return exchange(HttpMethod.GET, uri, headers, null)
+                .map(response -> {
+                    if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                        responseCache.revalidated(key, cached);
+                        return cached.toResponse();
+                    }
+                    if (response.getStatusCode() == HttpStatus.OK) {
+                        responseCache.put(prefix, key, response, generation);
+                    }
+                    return response;
+                });
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable T body) {
+        if (webClient == null) {
+            return Mono.fromCallable(() -> sendRequest(method, uri, new HttpEntity<>(body, headers)));
+        }
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> {
+            if (response.statusCode().is2xxSuccessful()) {
+                return response.toEntity(responseType());
+            }
+            return response.toEntity(byte[].class)
+                    .map(error -> errorResponse(error.getStatusCode(), error.getHeaders(), error.getBody()));
+        });
+    }
+
+    private <T> ResponseEntity<Object> sendRequest(HttpMethod method, URI uri, HttpEntity<T> requestEntity) {
         ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            shareitServerResponse = rest.exchange(uri, method, requestEntity, responseType());
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return errorResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    @SuppressWarnings("unchecked")
+    private Class<Object> responseType() {
+        return (Class<Object>) (passthrough ? byte[].class : Object.class);
+    }
+
+    private ResponseEntity<Object> errorResponse(HttpStatus status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (passthrough && headers != null && headers.getContentType() != null) {
+            responseBuilder.contentType(headers.getContentType());
+        }
+        return responseBuilder.body(body);
+    }
+
+    private static String cachePrefix(URI uri) {
+        String path = uri.getRawPath();
+        int end = path.indexOf('/', 1);
+        return end < 0 ? path : path.substring(0, end);
+    }
+
+    private static String cacheKey(URI uri, HttpHeaders headers) {
+        String query = uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "";
+        return uri.getRawPath() + query + " " + headers.getFirst("X-Sharer-User-Id") + " " + headers.getFirst(TOTAL_COUNT);
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, boolean withTotal) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (withTotal) {
+            headers.set(TOTAL_COUNT, "true");
+        }
         return headers;
     }
 
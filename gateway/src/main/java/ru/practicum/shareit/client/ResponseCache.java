@@ -0,0 +1,117 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.util.Util.TOTAL_COUNT;
+
+@Component
+public class ResponseCache {
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Cache<String, Entry> entries;
+    private final ConcurrentMap<String, Scope> scopes = new ConcurrentHashMap<>();
+
+    public ResponseCache(@Value("${shareit-gateway.cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-gateway.cache.ttl:5s}") Duration ttl,
+                         @Value("${shareit-gateway.cache.max-age:5m}") Duration maxAge,
+                         @Value("${shareit-gateway.cache.maximum-size:10000}") long maximumSize) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxAge)
+                .<String, Entry>evictionListener((key, entry, cause) -> {
+                    if (key != null && entry != null)
+                        scope(entry.getPrefix()).keys.remove(key);
+                })
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long generation(String prefix) {
+        return scope(prefix).generation.get();
+    }
+
+    public Entry get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(String prefix, String key, ResponseEntity<Object> response, long generationBefore) {
+        final Scope scope = scope(prefix);
+        final HttpHeaders headers = new HttpHeaders();
+        copyHeader(response.getHeaders(), headers, HttpHeaders.CONTENT_TYPE);
+        copyHeader(response.getHeaders(), headers, HttpHeaders.ETAG);
+        copyHeader(response.getHeaders(), headers, TOTAL_COUNT);
+        entries.put(key, new Entry(prefix, response.getBody(), HttpHeaders.readOnlyHttpHeaders(headers),
+                System.nanoTime()));
+        scope.keys.add(key);
+        if (scope.generation.get() != generationBefore)
+            entries.invalidate(key);
+    }
+
+    public void revalidated(String key, Entry entry) {
+        entries.asMap().replace(key, entry,
+                new Entry(entry.getPrefix(), entry.getBody(), entry.getHeaders(), System.nanoTime()));
+    }
+
+    public void invalidate(String... prefixes) {
+        for (String prefix : prefixes) {
+            final Scope scope = scope(prefix);
+            scope.generation.incrementAndGet();
+            final Iterator<String> keys = scope.keys.iterator();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                keys.remove();
+                entries.invalidate(key);
+            }
+        }
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.getStoredAt() < ttlNanos;
+    }
+
+    private Scope scope(String prefix) {
+        return scopes.computeIfAbsent(prefix, name -> new Scope());
+    }
+
+    private static void copyHeader(HttpHeaders from, HttpHeaders to, String name) {
+        if (from.containsKey(name))
+            to.put(name, from.get(name));
+    }
+
+    private static class Scope {
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+        private final AtomicLong generation = new AtomicLong();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final String prefix;
+        private final Object body;
+        private final HttpHeaders headers;
+        private final long storedAt;
+
+        public ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+}
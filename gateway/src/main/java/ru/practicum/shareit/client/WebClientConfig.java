@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory(
+            @Value("${shareit-gateway.client.max-connections:1000}") int maxConnections,
+            @Value("${shareit-gateway.client.pending-acquire-max-count:20000}") int pendingAcquireMaxCount,
+            @Value("${shareit-gateway.client.pending-acquire-timeout:30s}") Duration pendingAcquireTimeout,
+            @Value("${shareit-gateway.client.max-idle-time:30s}") Duration maxIdleTime) {
+        final ReactorResourceFactory factory = new ReactorResourceFactory();
+        factory.setUseGlobalResources(false);
+        factory.setConnectionProviderSupplier(() -> ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .metrics(true)
+                .build());
+        return factory;
+    }
+
+    @Bean
+    public WebClientCustomizer shareitServerConnector(
+            ReactorResourceFactory reactorResourceFactory,
+            @Value("${shareit-gateway.client.response-timeout:30s}") Duration responseTimeout,
+            @Value("${shareit-gateway.client.compression:true}") boolean compression,
+            @Value("${shareit-gateway.client.h2c:false}") boolean h2c) {
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(reactorResourceFactory,
+                httpClient -> httpClient
+                        .responseTimeout(responseTimeout)
+                        .compress(compression)
+                        .protocol(h2c ? HttpProtocol.H2C : HttpProtocol.HTTP11)));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-gateway.client.reactive", havingValue = "true")
+    public WebClient shareitServerWebClient(WebClient.Builder builder) {
+        return builder.build();
+    }
+}
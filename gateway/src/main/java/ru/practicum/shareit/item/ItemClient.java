@@ -1,18 +1,24 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
+import static ru.practicum.shareit.util.Util.AFTER;
 import static ru.practicum.shareit.util.Util.FROM;
 import static ru.practicum.shareit.util.Util.SIZE;
 
@@ -21,45 +27,55 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient,
+                      @Value("${shareit-gateway.client.passthrough:true}") boolean passthrough,
+                      ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                passthrough,
+                responseCache,
+                API_PREFIX, "/bookings", "/requests"
         );
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(Long userId, Long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItems(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getItems(Long userId, Integer from, Integer size, Long after, boolean withTotal) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 FROM, from,
                 SIZE, size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        if (after == null)
+            return get("?from={from}&size={size}", userId, parameters, withTotal);
+        parameters.put(AFTER, after);
+        return get("?from={from}&size={size}&after={after}", userId, parameters, withTotal);
     }
 
-    public ResponseEntity<Object> searchItems(Long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> searchItems(Long userId, String text, Integer from, Integer size, boolean withTotal) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 FROM, from,
                 SIZE, size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters, withTotal);
     }
 
-    public ResponseEntity<Object> createComment(Long userId, CommentDto commentDto, Long itemId) {
+    public Mono<ResponseEntity<Object>> createComment(Long userId, CommentDto commentDto, Long itemId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -24,48 +25,51 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(USER_ID) long userId,
-                                             @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(USER_ID) long userId,
+                                                   @Valid @RequestBody ItemDto itemDto) {
         log.info("Получен запрос на создание item");
         return itemClient.createItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(USER_ID) Long userId,
-                                             @PathVariable Long itemId,
-                                             @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(USER_ID) Long userId,
+                                                   @PathVariable Long itemId,
+                                                   @RequestBody ItemDto itemDto) {
         log.info("Получен запрос на обновление Item с идентификатором : " + itemId);
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader(USER_ID) Long userId,
-                                          @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader(USER_ID) Long userId,
+                                                @PathVariable Long itemId) {
         log.info("Запрос на получение item с идентификатором : {}", itemId);
         return itemClient.getItem(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader(USER_ID) Long userId,
-                                           @PositiveOrZero @RequestParam(value = FROM, defaultValue = "0") Integer from,
-                                           @Positive @RequestParam(value = SIZE, defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getItems(@RequestHeader(USER_ID) Long userId,
+                                                 @PositiveOrZero @RequestParam(value = FROM, defaultValue = "0") Integer from,
+                                                 @Positive @RequestParam(value = SIZE, defaultValue = "10") Integer size,
+                                                 @PositiveOrZero @RequestParam(value = AFTER, required = false) Long after,
+                                                 @RequestHeader(value = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         log.info("Запрос на получение списка всех item пользователя : {}", userId);
-        return itemClient.getItems(userId, from, size);
+        return itemClient.getItems(userId, from, size, after, withTotal);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestHeader(USER_ID) Long userId,
-                                              @RequestParam(value = "text") String text,
-                                              @Valid @PositiveOrZero @RequestParam(value = FROM, defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(value = SIZE, defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> searchItems(@RequestHeader(USER_ID) Long userId,
+                                                    @RequestParam(value = "text") String text,
+                                                    @Valid @PositiveOrZero @RequestParam(value = FROM, defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(value = SIZE, defaultValue = "10") Integer size,
+                                                    @RequestHeader(value = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         log.info("Запрос на получение списка вещей по ключевому слову : {}", text);
-        return itemClient.searchItems(userId, text, from, size);
+        return itemClient.searchItems(userId, text, from, size, withTotal);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(USER_ID) Long userId,
-                                                @Valid @RequestBody CommentDto commentDto,
-                                                @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader(USER_ID) Long userId,
+                                                      @Valid @RequestBody CommentDto commentDto,
+                                                      @PathVariable Long itemId) {
         log.info("Получен запрос на добавление отзыва для вещи : {}", itemId);
         return itemClient.createComment(userId, commentDto, itemId);
     }
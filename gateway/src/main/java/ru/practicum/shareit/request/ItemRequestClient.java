@@ -1,17 +1,23 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
+import static ru.practicum.shareit.util.Util.AFTER;
 import static ru.practicum.shareit.util.Util.FROM;
 import static ru.practicum.shareit.util.Util.SIZE;
 
@@ -20,33 +26,43 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient,
+                             @Value("${shareit-gateway.client.passthrough:true}") boolean passthrough,
+                             ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                passthrough,
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> createItemRequest(Long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(Long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getItemRequestsByOwner(Long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequestsByOwner(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequests(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getItemRequests(Long userId, Integer from, Integer size, String after, boolean withTotal) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 FROM, from,
                 SIZE, size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        ));
+        if (after == null)
+            return get("/all?from={from}&size={size}", userId, parameters, withTotal);
+        parameters.put(AFTER, after);
+        return get("/all?from={from}&size={size}&after={after}", userId, parameters, withTotal);
 
     }
 
-    public ResponseEntity<Object> getItemRequest(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequest(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
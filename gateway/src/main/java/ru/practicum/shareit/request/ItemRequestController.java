@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -23,29 +24,31 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader(USER_ID) Long userId,
-                                                    @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader(USER_ID) Long userId,
+                                                          @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.debug("Получен запрос на бронирование вещи с описание: {}", itemRequestDto.getDescription());
         return itemRequestClient.createItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemRequestsByOwner(@RequestHeader(USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequestsByOwner(@RequestHeader(USER_ID) Long userId) {
         log.debug("Получение списка всех запросов пользователя: {}", userId);
         return itemRequestClient.getItemRequestsByOwner(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getItemRequests(@RequestHeader(USER_ID) Long userId,
-                                                  @PositiveOrZero @RequestParam(value = FROM, defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(value = SIZE, defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getItemRequests(@RequestHeader(USER_ID) Long userId,
+                                                        @PositiveOrZero @RequestParam(value = FROM, defaultValue = "0") Integer from,
+                                                        @Positive @RequestParam(value = SIZE, defaultValue = "10") Integer size,
+                                                        @RequestParam(value = AFTER, required = false) String after,
+                                                        @RequestHeader(value = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         log.debug("Получение списка всех запросов для пользователя: {}", userId);
-        return itemRequestClient.getItemRequests(userId, from, size);
+        return itemRequestClient.getItemRequests(userId, from, size, after, withTotal);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequest(@RequestHeader(USER_ID) Long userId,
-                                                 @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequest(@RequestHeader(USER_ID) Long userId,
+                                                       @PathVariable Long requestId) {
         log.debug("Получение запроса на бронирование: {}", requestId);
         return itemRequestClient.getItemRequest(userId, requestId);
     }
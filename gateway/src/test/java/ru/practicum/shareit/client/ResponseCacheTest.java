@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.util.Util.TOTAL_COUNT;
+
+public class ResponseCacheTest {
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    public void createEnvironment() {
+        responseCache = new ResponseCache(true, Duration.ofMillis(200), Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void putStoresBodyAndCacheHeaders() {
+        final ResponseEntity<Object> response = ResponseEntity.ok()
+                .eTag("\"1\"")
+                .header(TOTAL_COUNT, "3")
+                .header(HttpHeaders.SET_COOKIE, "id=1")
+                .body("body");
+
+        responseCache.put("/items", "/items 1 null", response, responseCache.generation("/items"));
+
+        final ResponseCache.Entry entry = responseCache.get("/items 1 null");
+        assertThat(entry.getBody(), equalTo("body"));
+        assertThat(entry.getHeaders().getETag(), equalTo("\"1\""));
+        assertThat(entry.getHeaders().getFirst(TOTAL_COUNT), equalTo("3"));
+        assertThat(entry.getHeaders().containsKey(HttpHeaders.SET_COOKIE), equalTo(false));
+        assertThat(responseCache.isFresh(entry), equalTo(true));
+    }
+
+    @Test
+    void putRacingInvalidateIsDropped() {
+        final long generation = responseCache.generation("/bookings");
+        responseCache.invalidate("/bookings");
+
+        responseCache.put("/bookings", "/bookings/1 1 null", ResponseEntity.ok("WAITING"), generation);
+
+        assertThat(responseCache.get("/bookings/1 1 null"), nullValue());
+    }
+
+    @Test
+    void putInOtherPrefixSurvivesInvalidate() {
+        final long generation = responseCache.generation("/items");
+        responseCache.invalidate("/bookings");
+
+        responseCache.put("/items", "/items 1 null", ResponseEntity.ok("items"), generation);
+
+        assertThat(responseCache.get("/items 1 null"), notNullValue());
+    }
+
+    @Test
+    void invalidateRemovesEveryUsersKeysUnderPrefix() {
+        put("/bookings", "/bookings/1 1 null");
+        put("/bookings", "/bookings/1 2 null");
+        put("/bookings", "/bookings/owner 2 true");
+        put("/items", "/items 2 null");
+
+        responseCache.invalidate("/bookings");
+
+        assertThat(responseCache.get("/bookings/1 1 null"), nullValue());
+        assertThat(responseCache.get("/bookings/1 2 null"), nullValue());
+        assertThat(responseCache.get("/bookings/owner 2 true"), nullValue());
+        assertThat(responseCache.get("/items 2 null"), notNullValue());
+    }
+
+    @Test
+    void invalidateSeveralPrefixes() {
+        put("/bookings", "/bookings 1 null");
+        put("/items", "/items 2 null");
+        put("/requests", "/requests 2 null");
+
+        responseCache.invalidate("/bookings", "/items");
+
+        assertThat(responseCache.get("/bookings 1 null"), nullValue());
+        assertThat(responseCache.get("/items 2 null"), nullValue());
+        assertThat(responseCache.get("/requests 2 null"), notNullValue());
+    }
+
+    @Test
+    void keysCachedAfterInvalidateAreInvalidatedNextTime() {
+        put("/items", "/items 1 null");
+        responseCache.invalidate("/items");
+        put("/items", "/items 1 null");
+
+        responseCache.invalidate("/items");
+
+        assertThat(responseCache.get("/items 1 null"), nullValue());
+    }
+
+    @Test
+    void revalidatedRefreshesFreshness() throws InterruptedException {
+        put("/items", "/items 1 null");
+        final ResponseCache.Entry entry = responseCache.get("/items 1 null");
+        Thread.sleep(300);
+        assertThat(responseCache.isFresh(entry), equalTo(false));
+
+        responseCache.revalidated("/items 1 null", entry);
+
+        final ResponseCache.Entry refreshed = responseCache.get("/items 1 null");
+        assertThat(responseCache.isFresh(refreshed), equalTo(true));
+        assertThat(refreshed.getBody(), equalTo(entry.getBody()));
+    }
+
+    @Test
+    void revalidatedDoesNotRestoreInvalidatedEntry() {
+        put("/items", "/items 1 null");
+        final ResponseCache.Entry entry = responseCache.get("/items 1 null");
+        responseCache.invalidate("/items");
+
+        responseCache.revalidated("/items 1 null", entry);
+
+        assertThat(responseCache.get("/items 1 null"), nullValue());
+    }
+
+    private void put(String prefix, String key) {
+        responseCache.put(prefix, key, ResponseEntity.ok(key), responseCache.generation(prefix));
+    }
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class BookingCalendar {
+    private static final Comparator<Interval> ORDER = Comparator.comparing(Interval::getStart)
+            .thenComparing(Interval::getId);
+    private static final List<BookingStatus> APPROVED = List.of(BookingStatus.APPROVED);
+    private static final PageRequest FIRST = PageRequest.of(0, 1);
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, Timeline> calendars;
+    private final boolean enabled;
+    private final AtomicLong writes = new AtomicLong();
+
+    public BookingCalendar(BookingRepository bookingRepository,
+                           @Value("${shareit-server.booking-calendar.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit-server.booking-calendar.expire-after-access:30m}") Duration expireAfterAccess,
+                           @Value("#{'${shareit-server.item-lock.mode:striped}' != 'advisory'}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+        this.enabled = enabled;
+        if (!enabled)
+            log.info("Календарь бронирований отключен: в режиме advisory узлов несколько, брони читаются из базы.");
+    }
+
+    public Timeline find(Long itemId, LocalDateTime time) {
+        if (!enabled)
+            return load(itemId, time);
+        final Timeline timeline = calendars.get(itemId, id -> load(id, time));
+        if (timeline.covers(time))
+            return timeline;
+        return calendars.asMap().compute(itemId, (id, current) ->
+                current != null && current.covers(time) ? current : load(id, time));
+    }
+
+    public Map<Long, Timeline> findAll(Collection<Long> itemIds, LocalDateTime time) {
+        final Map<Long, Timeline> timelines = new HashMap<>();
+        final List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            final Timeline timeline = enabled ? calendars.getIfPresent(itemId) : null;
+            if (timeline == null || !timeline.covers(time))
+                missing.add(itemId);
+            else
+                timelines.put(itemId, timeline);
+        }
+        if (missing.isEmpty())
+            return timelines;
+        final long writesBefore = writes.get();
+        final Map<Long, Timeline> loaded = new HashMap<>();
+        missing.forEach(itemId -> loaded.put(itemId, new Timeline()));
+        bookingRepository.findLastByItems(missing, BookingStatus.APPROVED, time)
+                .forEach(booking -> loaded.get(booking.getItem().getId()).setLast(toInterval(booking)));
+        bookingRepository.findNextByItems(missing, BookingStatus.APPROVED, time)
+                .forEach(booking -> loaded.get(booking.getItem().getId()).setNext(toInterval(booking)));
+        loaded.forEach((itemId, timeline) -> {
+            if (enabled)
+                cache(itemId, timeline, time, writesBefore);
+            timelines.put(itemId, timeline);
+        });
+        return timelines;
+    }
+
+    public void evict(Collection<Long> itemIds) {
+        if (!enabled)
+            return;
+        invalidate(itemIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(itemIds);
+                }
+            });
+        }
+    }
+
+    public void save(Booking booking) {
+        if (!enabled)
+            return;
+        final Long itemId = booking.getItem().getId();
+        final Interval interval = toInterval(booking);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, interval);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(itemId, interval);
+            }
+        });
+    }
+
+    private void apply(Long itemId, Interval interval) {
+        writes.incrementAndGet();
+        calendars.asMap().computeIfPresent(itemId, (id, timeline) -> {
+            final boolean approved = interval.getStatus() == BookingStatus.APPROVED;
+            if (timeline.remove(interval.getId()) && !approved)
+                return null;
+            if (approved)
+                timeline.add(interval);
+            return timeline;
+        });
+    }
+
+    private void invalidate(Collection<Long> itemIds) {
+        writes.incrementAndGet();
+        calendars.invalidateAll(itemIds);
+    }
+
+    private void cache(Long itemId, Timeline loaded, LocalDateTime time, long writesBefore) {
+        calendars.asMap().compute(itemId, (id, current) -> {
+            if (current != null && current.covers(time))
+                return current;
+            return writes.get() == writesBefore ? loaded : null;
+        });
+    }
+
+    private Timeline load(Long itemId, LocalDateTime time) {
+        final Timeline timeline = new Timeline();
+        bookingRepository.findLastByItem(itemId, APPROVED, time, FIRST).stream()
+                .findFirst()
+                .ifPresent(booking -> timeline.setLast(toInterval(booking)));
+        bookingRepository.findNextByItem(itemId, APPROVED, time, FIRST).stream()
+                .findFirst()
+                .ifPresent(booking -> timeline.setNext(toInterval(booking)));
+        return timeline;
+    }
+
+    private static Interval toInterval(Booking booking) {
+        return new Interval(booking.getId(), booking.getStart(), booking.getEnd(), booking.getBooker().getId(),
+                booking.getStatus());
+    }
+
+    private static Interval probe(LocalDateTime time, long id) {
+        return new Interval(id, time, time, null, null);
+    }
+
+    public static class Timeline {
+        private final NavigableSet<Interval> intervals = new ConcurrentSkipListSet<>(ORDER);
+        private volatile LocalDateTime from;
+        private volatile LocalDateTime to;
+
+        public Optional<Interval> findLast(LocalDateTime time) {
+            return Optional.ofNullable(intervals.lower(probe(time, Long.MIN_VALUE)));
+        }
+
+        public Optional<Interval> findNext(LocalDateTime time) {
+            return Optional.ofNullable(intervals.higher(probe(time, Long.MAX_VALUE)));
+        }
+
+        private boolean covers(LocalDateTime time) {
+            return (from == null || time.isAfter(from)) && (to == null || time.isBefore(to));
+        }
+
+        private void setLast(Interval interval) {
+            intervals.add(interval);
+            from = interval.getStart();
+        }
+
+        private void setNext(Interval interval) {
+            intervals.add(interval);
+            to = interval.getStart();
+        }
+
+        private void add(Interval interval) {
+            intervals.add(interval);
+        }
+
+        private boolean remove(Long bookingId) {
+            return intervals.removeIf(interval -> interval.getId().equals(bookingId));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Interval {
+        private final Long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Long bookerId;
+        private final BookingStatus status;
+    }
+}
@@ -37,4 +37,13 @@ public class BookingMapper {
         bookingDto.setBookerId(booking.getBooker().getId());
         return bookingDto;
     }
+
+    public static ItemResponseDto.BookingItemDto toBookingItemDto(BookingCalendar.Interval interval) {
+        ItemResponseDto.BookingItemDto bookingDto = new ItemResponseDto.BookingItemDto();
+        bookingDto.setId(interval.getId());
+        bookingDto.setEnd(interval.getEnd());
+        bookingDto.setStart(interval.getStart());
+        bookingDto.setBookerId(interval.getBookerId());
+        return bookingDto;
+    }
 }
@@ -4,13 +4,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.CountedPage;
+import ru.practicum.shareit.util.Cursor;
 
 import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.util.Util.*;
 
@@ -41,32 +46,68 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDto findById(@RequestHeader(USER_ID) Long userId,
-                               @PathVariable Long bookingId) {
+    public ResponseEntity<BookingDto> findById(@RequestHeader(USER_ID) Long userId,
+                                               @PathVariable Long bookingId,
+                                               WebRequest request) {
+        final Optional<String> eTag = bookingService.findETag(userId, bookingId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            log.debug("Booking с идентификатором : {} не изменился", bookingId);
+            return null;
+        }
         BookingDto bookingDto = bookingService.findById(userId, bookingId);
         log.debug("Получен booking с идентификатором : {}", bookingId);
-        return bookingDto;
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(bookingDto);
     }
 
     @GetMapping
-    public List<BookingDto> findAllByBooker(@RequestHeader(USER_ID) Long userId,
-                                            @RequestParam(value = STATE, defaultValue = "ALL", required = false) String state,
-                                            @RequestParam(value = FROM, defaultValue = "0") Integer from,
-                                            @RequestParam(value = SIZE, defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> findAllByBooker(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(value = STATE, defaultValue = "ALL", required = false) String state,
+            @RequestParam(value = FROM, defaultValue = "0") Integer from,
+            @RequestParam(value = SIZE, defaultValue = "10") Integer size,
+            @RequestParam(value = AFTER, required = false) String after,
+            @RequestHeader(value = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size, sort);
-        List<BookingDto> bookingDtoList = bookingService.findAllByBooker(userId, state, page);
+        if (withTotal) {
+            final CountedPage<BookingDto> bookingDtoList = after != null
+                    ? bookingService.findAllByBookerWithTotal(userId, state, Cursor.from(after), size)
+                    : bookingService.findAllByBookerWithTotal(userId, state, page);
+            log.debug("Получен список bookings пользователя с id : {}", userId);
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT, String.valueOf(bookingDtoList.getTotal()))
+                    .body(bookingDtoList.getContent());
+        }
+        final List<BookingDto> bookingDtoList = after != null
+                ? bookingService.findAllByBooker(userId, state, Cursor.from(after), size)
+                : bookingService.findAllByBooker(userId, state, page);
         log.debug("Получен список bookings пользователя с id : {}", userId);
-        return bookingDtoList;
+        return ResponseEntity.ok(bookingDtoList);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findAllByOwner(@RequestHeader(USER_ID) Long userId,
-                                           @RequestParam(value = STATE, defaultValue = "ALL", required = false) String state,
-                                           @RequestParam(value = FROM, defaultValue = "0") Integer from,
-                                           @RequestParam(value = SIZE, defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> findAllByOwner(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(value = STATE, defaultValue = "ALL", required = false) String state,
+            @RequestParam(value = FROM, defaultValue = "0") Integer from,
+            @RequestParam(value = SIZE, defaultValue = "10") Integer size,
+            @RequestParam(value = AFTER, required = false) String after,
+            @RequestHeader(value = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size, sort);
-        List<BookingDto> bookingDtoList = bookingService.findAllByOwner(userId, state, page);
+        if (withTotal) {
+            final CountedPage<BookingDto> bookingDtoList = after != null
+                    ? bookingService.findAllByOwnerWithTotal(userId, state, Cursor.from(after), size)
+                    : bookingService.findAllByOwnerWithTotal(userId, state, page);
+            log.debug("Получен список bookings для вещей пользователя с id : {}", userId);
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT, String.valueOf(bookingDtoList.getTotal()))
+                    .body(bookingDtoList.getContent());
+        }
+        final List<BookingDto> bookingDtoList = after != null
+                ? bookingService.findAllByOwner(userId, state, Cursor.from(after), size)
+                : bookingService.findAllByOwner(userId, state, page);
         log.debug("Получен список bookings для вещей пользователя с id : {}", userId);
-        return bookingDtoList;
+        return ResponseEntity.ok(bookingDtoList);
     }
 }
@@ -19,6 +19,16 @@ public class BookingDto {
     private Booker booker;
     private BookingStatus status;
 
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Long itemId, String itemName,
+                      Long bookerId, String bookerName, BookingStatus status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = new Item(itemId, itemName);
+        this.booker = new Booker(bookerId, bookerName);
+        this.status = status;
+    }
+
     @Getter
     @Setter
     @AllArgsConstructor
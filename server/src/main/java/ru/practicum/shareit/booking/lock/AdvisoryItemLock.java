@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.item-lock.mode", havingValue = "advisory")
+public class AdvisoryItemLock implements ItemLock {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void lock(Long itemId) {
+        entityManager.createNativeQuery("select 1 from pg_advisory_xact_lock(:itemId)")
+                .setParameter("itemId", itemId)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.lock;
+
+public interface ItemLock {
+    void lock(Long itemId);
+}
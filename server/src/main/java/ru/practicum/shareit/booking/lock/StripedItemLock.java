@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit-server.item-lock.mode", havingValue = "striped", matchIfMissing = true)
+public class StripedItemLock implements ItemLock {
+    private final ReentrantLock[] stripes;
+    private final Duration timeout;
+
+    public StripedItemLock(@Value("${shareit-server.item-lock.stripes:256}") int stripes,
+                           @Value("${shareit-server.item-lock.timeout:10s}") Duration timeout) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++)
+            this.stripes[i] = new ReentrantLock();
+        this.timeout = timeout;
+        log.info("Блокировки item действуют только внутри одного узла: для нескольких узлов нужен режим advisory.");
+    }
+
+    @Override
+    public void lock(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("Блокировка item возможна только внутри транзакции.");
+        final ReentrantLock stripe = stripes[stripe(itemId)];
+        try {
+            if (!stripe.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS))
+                throw new CannotAcquireLockException("Не удалось заблокировать item с идентификатором : " + itemId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Ожидание блокировки item с идентификатором : " + itemId + " прервано.", e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+    }
+
+    private int stripe(Long itemId) {
+        final int hash = Long.hashCode(itemId);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -1,35 +1,128 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingVersion;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime date, PageRequest page);
+    String SELECT_BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, i.id, i.name, u.id, u.name, b.status) " +
+            "from Booking b join b.item i join b.booker u ";
+    String AFTER_CURSOR = " and b.start <= :start and (b.start < :start or (b.start = :start and b.id < :id)) order by b.start desc, b.id desc";
 
-    Page<Booking> findAllByBooker_Id(Long bookerId, PageRequest page);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long bookingId);
 
-    Page<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime date, LocalDateTime date1, PageRequest page);
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = ?1 and b.end < ?2")
+    Slice<BookingDto> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime date, Pageable page);
 
-    Page<Booking> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime date, PageRequest page);
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = ?1")
+    Slice<BookingDto> findAllByBooker_Id(Long bookerId, Pageable page);
 
-    Page<Booking> findAllByItem_IdIn(List<Long> itemId, PageRequest page);
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3")
+    Slice<BookingDto> findByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime date, LocalDateTime date1, Pageable page);
 
-    Page<Booking> findByItem_IdInAndStartIsBeforeAndEndIsAfter(List<Long> itemId, LocalDateTime date, LocalDateTime date1, PageRequest page);
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = ?1 and b.start > ?2")
+    Slice<BookingDto> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime date, Pageable page);
 
-    Page<Booking> findByItem_IdInAndEndIsBefore(List<Long> itemId, LocalDateTime date, PageRequest page);
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = ?1")
+    Slice<BookingDto> findAllByItem_Owner_Id(Long ownerId, Pageable page);
 
-    Page<Booking> findByItem_IdInAndStartIsAfterAndStatusIs(List<Long> itemId, LocalDateTime date, BookingStatus bookingStatus, PageRequest page);
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = ?1 and b.start < ?2 and b.end > ?3")
+    Slice<BookingDto> findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime date, LocalDateTime date1, Pageable page);
 
-    Page<Booking> findByBooker_IdAndStartIsAfterAndStatusIs(Long userId, LocalDateTime date, BookingStatus bookingStatus, PageRequest page);
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = ?1 and b.end < ?2")
+    Slice<BookingDto> findByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime date, Pageable page);
 
-    Page<Booking> findByItem_IdInAndStartIsAfter(List<Long> itemIdList, LocalDateTime date, PageRequest page);
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = ?1 and b.start > ?2 and b.status = ?3")
+    Slice<BookingDto> findByItem_Owner_IdAndStartIsAfterAndStatusIs(Long ownerId, LocalDateTime date, BookingStatus bookingStatus, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = ?1 and b.start > ?2 and b.status = ?3")
+    Slice<BookingDto> findByBooker_IdAndStartIsAfterAndStatusIs(Long userId, LocalDateTime date, BookingStatus bookingStatus, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = ?1 and b.start > ?2")
+    Slice<BookingDto> findByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime date, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :userId" + AFTER_CURSOR)
+    Slice<BookingDto> findAllByBookerAfter(@Param("userId") Long bookerId, @Param("start") LocalDateTime start,
+                                           @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :userId and b.start < :date and b.end > :date" + AFTER_CURSOR)
+    Slice<BookingDto> findCurrentByBookerAfter(@Param("userId") Long bookerId, @Param("date") LocalDateTime date,
+                                               @Param("start") LocalDateTime start, @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :userId and b.end < :date" + AFTER_CURSOR)
+    Slice<BookingDto> findPastByBookerAfter(@Param("userId") Long bookerId, @Param("date") LocalDateTime date,
+                                            @Param("start") LocalDateTime start, @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :userId and b.start > :date" + AFTER_CURSOR)
+    Slice<BookingDto> findFutureByBookerAfter(@Param("userId") Long bookerId, @Param("date") LocalDateTime date,
+                                              @Param("start") LocalDateTime start, @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :userId and b.start > :date and b.status = :status" + AFTER_CURSOR)
+    Slice<BookingDto> findFutureByBookerAndStatusAfter(@Param("userId") Long bookerId, @Param("date") LocalDateTime date,
+                                                       @Param("status") BookingStatus status, @Param("start") LocalDateTime start,
+                                                       @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :userId" + AFTER_CURSOR)
+    Slice<BookingDto> findAllByOwnerAfter(@Param("userId") Long ownerId, @Param("start") LocalDateTime start,
+                                          @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :userId and b.start < :date and b.end > :date" + AFTER_CURSOR)
+    Slice<BookingDto> findCurrentByOwnerAfter(@Param("userId") Long ownerId, @Param("date") LocalDateTime date,
+                                              @Param("start") LocalDateTime start, @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :userId and b.end < :date" + AFTER_CURSOR)
+    Slice<BookingDto> findPastByOwnerAfter(@Param("userId") Long ownerId, @Param("date") LocalDateTime date,
+                                           @Param("start") LocalDateTime start, @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :userId and b.start > :date" + AFTER_CURSOR)
+    Slice<BookingDto> findFutureByOwnerAfter(@Param("userId") Long ownerId, @Param("date") LocalDateTime date,
+                                             @Param("start") LocalDateTime start, @Param("id") Long id, Pageable page);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :userId and b.start > :date and b.status = :status" + AFTER_CURSOR)
+    Slice<BookingDto> findFutureByOwnerAndStatusAfter(@Param("userId") Long ownerId, @Param("date") LocalDateTime date,
+                                                      @Param("status") BookingStatus status, @Param("start") LocalDateTime start,
+                                                      @Param("id") Long id, Pageable page);
+
+    @Query("select count(b) from Booking b where b.booker.id = ?1")
+    long countByBooker_Id(Long bookerId);
+
+    @Query("select count(b) from Booking b where b.booker.id = ?1 and b.start < ?2 and b.end > ?3")
+    long countByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime date, LocalDateTime date1);
+
+    @Query("select count(b) from Booking b where b.booker.id = ?1 and b.end < ?2")
+    long countByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime date);
+
+    @Query("select count(b) from Booking b where b.booker.id = ?1 and b.start > ?2")
+    long countByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime date);
+
+    @Query("select count(b) from Booking b where b.booker.id = ?1 and b.start > ?2 and b.status = ?3")
+    long countByBooker_IdAndStartIsAfterAndStatusIs(Long bookerId, LocalDateTime date, BookingStatus bookingStatus);
+
+    long countByItem_Owner_Id(Long ownerId);
+
+    long countByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime date, LocalDateTime date1);
+
+    long countByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime date);
+
+    long countByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime date);
+
+    long countByItem_Owner_IdAndStartIsAfterAndStatusIs(Long ownerId, LocalDateTime date, BookingStatus bookingStatus);
 
     List<Booking> findAllByItem_IdInAndStatusIs(List<Long> itemId, BookingStatus status);
 
@@ -37,5 +130,40 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByItem_IdAndEndIsBefore(Long itemId, LocalDateTime date);
 
+    @Query("select b from Booking b where b.item.id = :itemId and b.status in :statuses and b.start < :date " +
+            "order by b.start desc")
+    List<Booking> findLastByItem(@Param("itemId") Long itemId, @Param("statuses") Collection<BookingStatus> statuses,
+                                 @Param("date") LocalDateTime date, Pageable page);
+
+    @Query("select b from Booking b where b.item.id = :itemId and b.status in :statuses and b.start > :date " +
+            "order by b.start asc")
+    List<Booking> findNextByItem(@Param("itemId") Long itemId, @Param("statuses") Collection<BookingStatus> statuses,
+                                 @Param("date") LocalDateTime date, Pageable page);
+
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status = :status and b.start = " +
+            "(select max(l.start) from Booking l where l.item.id = b.item.id and l.status = :status and l.start < :date)")
+    List<Booking> findLastByItems(@Param("itemIds") Collection<Long> itemIds, @Param("status") BookingStatus status,
+                                  @Param("date") LocalDateTime date);
+
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status = :status and b.start = " +
+            "(select min(n.start) from Booking n where n.item.id = b.item.id and n.status = :status and n.start > :date)")
+    List<Booking> findNextByItems(@Param("itemIds") Collection<Long> itemIds, @Param("status") BookingStatus status,
+                                  @Param("date") LocalDateTime date);
+
+    @Query("select distinct b.item.id from Booking b where b.booker.id = :userId")
+    List<Long> findItemIdsByBooker(@Param("userId") Long bookerId);
+
+    @Query("select b.item.id from Booking b where b.id = :bookingId")
+    Optional<Long> findItemIdById(@Param("bookingId") Long bookingId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     Optional<Booking> findByIdAndItemOwnerId(Long bookingId, Long userId);
+
+    @Query("select b.version as version, i.version as itemVersion from Booking b join b.item i " +
+            "where b.id = :bookingId and (b.booker.id = :userId or i.owner.id = :userId)")
+    Optional<BookingVersion> findVersionForViewer(@Param("bookingId") Long bookingId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Booking b set b.version = b.version + 1 where b.booker.id = :userId")
+    int incrementVersionByBooker(@Param("userId") Long userId);
 }
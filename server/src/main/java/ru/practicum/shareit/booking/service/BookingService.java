@@ -3,8 +3,11 @@ package ru.practicum.shareit.booking.service;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.util.CountedPage;
+import ru.practicum.shareit.util.Cursor;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
     BookingDto create(BookingRequestDto bookingRequestDto, Long userId);
@@ -13,7 +16,21 @@ public interface BookingService {
 
     BookingDto findById(Long userId, Long bookingId);
 
+    Optional<String> findETag(Long userId, Long bookingId);
+
     List<BookingDto> findAllByBooker(Long userId, String state, PageRequest page);
 
     List<BookingDto> findAllByOwner(Long userId, String state, PageRequest page);
+
+    List<BookingDto> findAllByBooker(Long userId, String state, Cursor after, int size);
+
+    List<BookingDto> findAllByOwner(Long userId, String state, Cursor after, int size);
+
+    CountedPage<BookingDto> findAllByBookerWithTotal(Long userId, String state, PageRequest page);
+
+    CountedPage<BookingDto> findAllByOwnerWithTotal(Long userId, String state, PageRequest page);
+
+    CountedPage<BookingDto> findAllByBookerWithTotal(Long userId, String state, Cursor after, int size);
+
+    CountedPage<BookingDto> findAllByOwnerWithTotal(Long userId, String state, Cursor after, int size);
 }
@@ -1,28 +1,33 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.lock.ItemLock;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.NotFoundExceptionEntity;
-import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.util.CountedPage;
+import ru.practicum.shareit.util.Cursor;
+import ru.practicum.shareit.util.OptimisticRetry;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 import static java.util.Collections.emptyList;
 import static ru.practicum.shareit.booking.BookingMapper.toBooking;
@@ -32,9 +37,13 @@ import static ru.practicum.shareit.booking.BookingMapper.toBookingDto;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingCalendar bookingCalendar;
+    private final ItemLock itemLock;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
     @Transactional
@@ -44,6 +53,7 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Дата окончания бронирования не может быть позже даты старта или равна ей.");
         final Long itemId = bookingRequestDto.getItemId();
         final User user = chekUser(userId);
+        itemLock.lock(itemId);
         final Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundExceptionEntity("Item с идентификатором : " + itemId + " не найден."));
         if (!item.getIsAvailable())
@@ -51,14 +61,23 @@ public class BookingServiceImpl implements BookingService {
         final Long id = item.getOwner().getId();
         if (Objects.equals(id, userId))
             throw new NotFoundExceptionEntity("Бронирование своего item запрещено.");
-        final Booking booking = toBooking(bookingRequestDto, item, user);
-        return toBookingDto(bookingRepository.save(booking));
+        if (isOverlapping(itemId, bookingRequestDto.getStart(), bookingRequestDto.getEnd()))
+            throw new NotFoundException("Item уже забронирован на выбранный период.");
+        final Booking booking = bookingRepository.save(toBooking(bookingRequestDto, item, user));
+        bookingCalendar.save(booking);
+        return toBookingDto(booking);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingDto update(Long bookingId, Long userId, boolean isApproved) {
+        return optimisticRetry.execute(() -> changeStatus(bookingId, userId, isApproved));
+    }
+
+    private BookingDto changeStatus(Long bookingId, Long userId, boolean isApproved) {
         chekUser(userId);
+        itemLock.lock(bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new NotFoundExceptionEntity("Booking с идентификатором : " + bookingId + " не найден.")));
         Booking booking = bookingRepository.findByIdAndItemOwnerId(bookingId, userId)
                 .orElseThrow(() -> new NotFoundExceptionEntity("Booking с идентификатором : " + bookingId + " не найден."));
         if (!booking.getStatus().equals(BookingStatus.WAITING))
@@ -67,7 +86,9 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(BookingStatus.APPROVED);
         else
             booking.setStatus(BookingStatus.REJECTED);
-        return toBookingDto(bookingRepository.save(booking));
+        booking = bookingRepository.save(booking);
+        bookingCalendar.save(booking);
+        return toBookingDto(booking);
     }
 
     @Override
@@ -78,12 +99,22 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundExceptionEntity("Booking с идентификатором : " + bookingId + " не найден.")));
     }
 
+    @Override
+    public Optional<String> findETag(Long userId, Long bookingId) {
+        chekUser(userId);
+        return bookingRepository.findVersionForViewer(bookingId, userId)
+                .map(version -> "W/\"booking-" + bookingId + "-" + version.getVersion() + "-" + version.getItemVersion() + "\"");
+    }
+
     @Override
     public List<BookingDto> findAllByBooker(Long userId, String state, PageRequest page) {
         final BookingState bookingState = BookingState.valueOf(state);
         chekUser(userId);
-        final LocalDateTime date = LocalDateTime.now();
-        Page<Booking> bookings;
+        return findByBooker(userId, bookingState, LocalDateTime.now(), page);
+    }
+
+    private List<BookingDto> findByBooker(Long userId, BookingState bookingState, LocalDateTime date, PageRequest page) {
+        Slice<BookingDto> bookings;
         switch (bookingState) {
             case ALL:
                 bookings = bookingRepository.findAllByBooker_Id(userId, page);
@@ -106,9 +137,7 @@ public class BookingServiceImpl implements BookingService {
             default:
                 return emptyList();
         }
-        return bookings
-                .map(BookingMapper::toBookingDto)
-                .getContent();
+        return bookings.getContent();
 
     }
 
@@ -116,41 +145,194 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> findAllByOwner(Long userId, String state, PageRequest page) {
         final BookingState bookingState = BookingState.valueOf(state);
         chekUser(userId);
-        final List<Long> itemIdList = itemRepository.findAllByOwnerId(userId)
-                .stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-        final LocalDateTime date = LocalDateTime.now();
-        Page<Booking> bookings;
+        return findByOwner(userId, bookingState, LocalDateTime.now(), page);
+    }
+
+    private List<BookingDto> findByOwner(Long userId, BookingState bookingState, LocalDateTime date, PageRequest page) {
+        Slice<BookingDto> bookings;
+        switch (bookingState) {
+            case ALL:
+                bookings = bookingRepository.findAllByItem_Owner_Id(userId, page);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(userId, date, date, page);
+                break;
+            case PAST:
+                bookings = bookingRepository.findByItem_Owner_IdAndEndIsBefore(userId, date, page);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findByItem_Owner_IdAndStartIsAfter(userId, date, page);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findByItem_Owner_IdAndStartIsAfterAndStatusIs(userId, date, BookingStatus.WAITING, page);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findByItem_Owner_IdAndStartIsAfterAndStatusIs(userId, date, BookingStatus.REJECTED, page);
+                break;
+            default:
+                return emptyList();
+        }
+        return bookings.getContent();
+    }
+
+    @Override
+    public List<BookingDto> findAllByBooker(Long userId, String state, Cursor after, int size) {
+        final BookingState bookingState = BookingState.valueOf(state);
+        chekUser(userId);
+        return findByBooker(userId, bookingState, LocalDateTime.now(), after, size);
+    }
+
+    private List<BookingDto> findByBooker(Long userId, BookingState bookingState, LocalDateTime date, Cursor after, int size) {
+        final LocalDateTime start = after.getTime();
+        final Long id = after.getId();
+        final PageRequest page = PageRequest.of(0, size);
+        Slice<BookingDto> bookings;
+        switch (bookingState) {
+            case ALL:
+                bookings = bookingRepository.findAllByBookerAfter(userId, start, id, page);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findCurrentByBookerAfter(userId, date, start, id, page);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastByBookerAfter(userId, date, start, id, page);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureByBookerAfter(userId, date, start, id, page);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findFutureByBookerAndStatusAfter(userId, date, BookingStatus.WAITING, start, id, page);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findFutureByBookerAndStatusAfter(userId, date, BookingStatus.REJECTED, start, id, page);
+                break;
+            default:
+                return emptyList();
+        }
+        return bookings.getContent();
+    }
+
+    @Override
+    public List<BookingDto> findAllByOwner(Long userId, String state, Cursor after, int size) {
+        final BookingState bookingState = BookingState.valueOf(state);
+        chekUser(userId);
+        return findByOwner(userId, bookingState, LocalDateTime.now(), after, size);
+    }
+
+    private List<BookingDto> findByOwner(Long userId, BookingState bookingState, LocalDateTime date, Cursor after, int size) {
+        final LocalDateTime start = after.getTime();
+        final Long id = after.getId();
+        final PageRequest page = PageRequest.of(0, size);
+        Slice<BookingDto> bookings;
         switch (bookingState) {
             case ALL:
-                bookings = bookingRepository.findAllByItem_IdIn(itemIdList, page);
+                bookings = bookingRepository.findAllByOwnerAfter(userId, start, id, page);
                 break;
             case CURRENT:
-                bookings = bookingRepository.findByItem_IdInAndStartIsBeforeAndEndIsAfter(itemIdList, date, date, page);
+                bookings = bookingRepository.findCurrentByOwnerAfter(userId, date, start, id, page);
                 break;
             case PAST:
-                bookings = bookingRepository.findByItem_IdInAndEndIsBefore(itemIdList, date, page);
+                bookings = bookingRepository.findPastByOwnerAfter(userId, date, start, id, page);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findByItem_IdInAndStartIsAfter(itemIdList, date, page);
+                bookings = bookingRepository.findFutureByOwnerAfter(userId, date, start, id, page);
                 break;
             case WAITING:
-                bookings = bookingRepository.findByItem_IdInAndStartIsAfterAndStatusIs(itemIdList, date, BookingStatus.WAITING, page);
+                bookings = bookingRepository.findFutureByOwnerAndStatusAfter(userId, date, BookingStatus.WAITING, start, id, page);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByItem_IdInAndStartIsAfterAndStatusIs(itemIdList, date, BookingStatus.REJECTED, page);
+                bookings = bookingRepository.findFutureByOwnerAndStatusAfter(userId, date, BookingStatus.REJECTED, start, id, page);
                 break;
             default:
                 return emptyList();
         }
-        return bookings
-                .map(BookingMapper::toBookingDto)
-                .getContent();
+        return bookings.getContent();
+    }
+
+    @Override
+    public CountedPage<BookingDto> findAllByBookerWithTotal(Long userId, String state, PageRequest page) {
+        final BookingState bookingState = BookingState.valueOf(state);
+        chekUser(userId);
+        final LocalDateTime date = LocalDateTime.now();
+        return new CountedPage<>(findByBooker(userId, bookingState, date, page),
+                countByBooker(userId, bookingState, date));
+    }
+
+    @Override
+    public CountedPage<BookingDto> findAllByOwnerWithTotal(Long userId, String state, PageRequest page) {
+        final BookingState bookingState = BookingState.valueOf(state);
+        chekUser(userId);
+        final LocalDateTime date = LocalDateTime.now();
+        return new CountedPage<>(findByOwner(userId, bookingState, date, page),
+                countByOwner(userId, bookingState, date));
+    }
+
+    @Override
+    public CountedPage<BookingDto> findAllByBookerWithTotal(Long userId, String state, Cursor after, int size) {
+        final BookingState bookingState = BookingState.valueOf(state);
+        chekUser(userId);
+        final LocalDateTime date = LocalDateTime.now();
+        return new CountedPage<>(findByBooker(userId, bookingState, date, after, size),
+                countByBooker(userId, bookingState, date));
+    }
+
+    @Override
+    public CountedPage<BookingDto> findAllByOwnerWithTotal(Long userId, String state, Cursor after, int size) {
+        final BookingState bookingState = BookingState.valueOf(state);
+        chekUser(userId);
+        final LocalDateTime date = LocalDateTime.now();
+        return new CountedPage<>(findByOwner(userId, bookingState, date, after, size),
+                countByOwner(userId, bookingState, date));
+    }
+
+    private long countByBooker(Long userId, BookingState bookingState, LocalDateTime date) {
+        switch (bookingState) {
+            case ALL:
+                return bookingRepository.countByBooker_Id(userId);
+            case CURRENT:
+                return bookingRepository.countByBooker_IdAndStartIsBeforeAndEndIsAfter(userId, date, date);
+            case PAST:
+                return bookingRepository.countByBooker_IdAndEndIsBefore(userId, date);
+            case FUTURE:
+                return bookingRepository.countByBooker_IdAndStartIsAfter(userId, date);
+            case WAITING:
+                return bookingRepository.countByBooker_IdAndStartIsAfterAndStatusIs(userId, date, BookingStatus.WAITING);
+            case REJECTED:
+                return bookingRepository.countByBooker_IdAndStartIsAfterAndStatusIs(userId, date, BookingStatus.REJECTED);
+            default:
+                return 0;
+        }
+    }
+
+    private long countByOwner(Long userId, BookingState bookingState, LocalDateTime date) {
+        switch (bookingState) {
+            case ALL:
+                return bookingRepository.countByItem_Owner_Id(userId);
+            case CURRENT:
+                return bookingRepository.countByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(userId, date, date);
+            case PAST:
+                return bookingRepository.countByItem_Owner_IdAndEndIsBefore(userId, date);
+            case FUTURE:
+                return bookingRepository.countByItem_Owner_IdAndStartIsAfter(userId, date);
+            case WAITING:
+                return bookingRepository.countByItem_Owner_IdAndStartIsAfterAndStatusIs(userId, date, BookingStatus.WAITING);
+            case REJECTED:
+                return bookingRepository.countByItem_Owner_IdAndStartIsAfterAndStatusIs(userId, date, BookingStatus.REJECTED);
+            default:
+                return 0;
+        }
+    }
+
+    private boolean isOverlapping(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.findLastByItem(itemId, ACTIVE_STATUSES, end, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .filter(booking -> booking.getEnd().isAfter(start))
+                .isPresent();
     }
 
     private User chekUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден."));
+        if (!userRepository.existsById(userId))
+            throw new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден.");
+        return userRepository.getReferenceById(userId);
     }
 }
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.exeption;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -9,6 +13,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @Slf4j
 @RestControllerAdvice
 public class ExceptionHandlerController {
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "ex_bookings_item_period";
+
     @ExceptionHandler
     @ResponseStatus(value = HttpStatus.NOT_FOUND)
     private ErrorResponse exceptionHandler(final NotFoundExceptionEntity e) {
@@ -23,6 +29,24 @@ public class ExceptionHandlerController {
         return new ErrorResponse(e.getMessage(), System.currentTimeMillis());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    private ErrorResponse exceptionHandler(final OptimisticLockingFailureException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Данные были изменены другим запросом, повторите попытку.", System.currentTimeMillis());
+    }
+
+    @ExceptionHandler
+    private ResponseEntity<ErrorResponse> exceptionHandler(final DataIntegrityViolationException e) {
+        log.warn(e.getMessage());
+        final String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (cause != null && cause.contains(BOOKING_OVERLAP_CONSTRAINT))
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Item уже забронирован на выбранный период.", System.currentTimeMillis()));
+        return ResponseEntity.internalServerError()
+                .body(new ErrorResponse(e.getMessage(), System.currentTimeMillis()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(value = HttpStatus.INTERNAL_SERVER_ERROR)
     private ErrorResponse handleThrowable(final Throwable e) {
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.Hibernate;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
 
 public class ItemMapper {
     public static ItemDto toItemDto(Item item) {
@@ -11,7 +13,7 @@ public class ItemMapper {
                 item.getName(),
                 item.getDescription(),
                 item.getIsAvailable(),
-                item.getOwner(),
+                Hibernate.unproxy(item.getOwner(), User.class),
                 item.getRequest() != null ? item.getRequest().getId() : null
         );
     }
@@ -31,7 +33,7 @@ public class ItemMapper {
                 item.getName(),
                 item.getDescription(),
                 item.getIsAvailable(),
-                item.getOwner(),
+                Hibernate.unproxy(item.getOwner(), User.class),
                 item.getRequest() != null ? item.getRequest().getId() : null);
     }
 }
@@ -0,0 +1,214 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final long[] EMPTY = new long[0];
+    private final ItemRepository itemRepository;
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try (Stream<ItemSearchDto> items = itemRepository.streamAvailable()) {
+            postings.clear();
+            documents.clear();
+            items.forEach(item -> add(item.getId(), item.getName(), item.getDescription()));
+            ready = true;
+            log.info("Индекс поиска вещей построен, проиндексировано : {}", documents.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Item item) {
+        final Long id = item.getId();
+        final String name = item.getName();
+        final String description = item.getDescription();
+        final boolean available = Boolean.TRUE.equals(item.getIsAvailable());
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                unindex(id);
+                if (available)
+                    add(id, name, description);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                unindex(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public long[] search(String text) {
+        final String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            final long[] candidates = findCandidates(query);
+            int size = 0;
+            for (long id : candidates) {
+                if (documents.get(id).contains(query))
+                    candidates[size++] = id;
+            }
+            return Arrays.copyOf(candidates, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] findCandidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet()
+                    .stream()
+                    .mapToLong(Long::longValue)
+                    .sorted()
+                    .toArray();
+        }
+        final List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            final Postings list = postings.get(gram);
+            if (list == null)
+                return EMPTY;
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        long[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++)
+            size = lists.get(i).retainAll(result, size);
+        return Arrays.copyOf(result, size);
+    }
+
+    private void add(Long id, String name, String description) {
+        final String nameText = normalize(name);
+        final String descriptionText = normalize(description);
+        documents.put(id, nameText + '\n' + descriptionText);
+        final Set<String> grams = grams(nameText);
+        grams.addAll(grams(descriptionText));
+        grams.forEach(gram -> postings.computeIfAbsent(gram, key -> new Postings()).add(id));
+    }
+
+    private void unindex(Long id) {
+        final String document = documents.remove(id);
+        if (document == null)
+            return;
+        final int separator = document.indexOf('\n');
+        final Set<String> grams = grams(document.substring(0, separator));
+        grams.addAll(grams(document.substring(separator + 1)));
+        for (String gram : grams) {
+            final Postings list = postings.get(gram);
+            list.remove(id);
+            if (list.size == 0)
+                postings.remove(gram);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        final Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++)
+            grams.add(text.substring(i, i + GRAM));
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0)
+                return;
+            index = -index - 1;
+            ensureCapacity();
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            final int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0)
+                return;
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        private int retainAll(long[] target, int targetSize) {
+            int result = 0;
+            int from = 0;
+            for (int i = 0; i < targetSize && from < size; i++) {
+                final int index = Arrays.binarySearch(ids, from, size, target[i]);
+                if (index >= 0) {
+                    target[result++] = target[i];
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return result;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+        }
+    }
+}
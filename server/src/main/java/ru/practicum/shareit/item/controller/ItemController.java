@@ -4,14 +4,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.CountedPage;
 
 import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.util.Util.*;
 
@@ -40,33 +44,64 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemResponseDto findById(@RequestHeader(USER_ID) Long userId,
-                                    @PathVariable Long itemId) {
+    public ResponseEntity<ItemResponseDto> findById(@RequestHeader(USER_ID) Long userId,
+                                                    @PathVariable Long itemId,
+                                                    WebRequest request) {
+        final Optional<String> eTag = itemService.findETag(itemId, userId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            log.debug("Item с идентификатором : {} не изменился", itemId);
+            return null;
+        }
         final ItemResponseDto itemsDto = itemService.findById(itemId, userId);
         log.debug("Получен item с идентификатором : {}", itemId);
-        return itemsDto;
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(itemsDto);
     }
 
     @GetMapping
-    public List<ItemResponseDto> findAll(@RequestHeader(USER_ID) Long userId,
-                                         @RequestParam(value = FROM, defaultValue = "0") Integer from,
-                                         @RequestParam(value = SIZE, defaultValue = "10") Integer size) {
+    public ResponseEntity<List<ItemResponseDto>> findAll(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(value = FROM, defaultValue = "0") Integer from,
+            @RequestParam(value = SIZE, defaultValue = "10") Integer size,
+            @RequestParam(value = AFTER, required = false) Long after,
+            @RequestHeader(value = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size, sort);
-        final List<ItemResponseDto> findAllItem = itemService.findAll(userId, page);
+        if (withTotal) {
+            final CountedPage<ItemResponseDto> findAllItem = after != null
+                    ? itemService.findAllWithTotal(userId, after, size)
+                    : itemService.findAllWithTotal(userId, page);
+            log.debug("Получен список всех item пользователя : {}", userId);
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT, String.valueOf(findAllItem.getTotal()))
+                    .body(findAllItem.getContent());
+        }
+        final List<ItemResponseDto> findAllItem = after != null
+                ? itemService.findAll(userId, after, size)
+                : itemService.findAll(userId, page);
         log.debug("Получен список всех item пользователя : {}", userId);
-        return findAllItem;
+        return ResponseEntity.ok(findAllItem);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestHeader(USER_ID) Long userId,
-                                     @RequestParam(value = "text") String text,
-                                     @RequestParam(value = FROM, defaultValue = "0") Integer from,
-                                     @RequestParam(value = SIZE, defaultValue = "10") Integer size) {
+    public ResponseEntity<List<ItemDto>> searchItems(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(value = "text") String text,
+            @RequestParam(value = FROM, defaultValue = "0") Integer from,
+            @RequestParam(value = SIZE, defaultValue = "10") Integer size,
+            @RequestHeader(value = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
+        if (withTotal) {
+            final CountedPage<ItemDto> items = itemService.searchItemsWithTotal(userId, text, page);
+            log.debug("Получен список вещей по ключевому слову : {}", text);
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT, String.valueOf(items.getTotal()))
+                    .body(items.getContent());
+        }
         final List<ItemDto> items = itemService.searchItems(userId, text, page);
         log.debug("Получен список вещей по ключевому слову : {}", text);
-        return items;
+        return ResponseEntity.ok(items);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,21 +1,84 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemSearchDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findById(Long itemId);
+
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 where i.id = :itemId")
+    int incrementVersion(@Param("itemId") Long itemId);
+
+    @Query("select i.version from Item i where i.id = :itemId and i.owner.id <> :userId")
+    Optional<Long> findVersionForViewer(@Param("itemId") Long itemId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 " +
+            "where i.owner.id = :userId " +
+            "or i.id in (select c.item.id from Comment c where c.author.id = :userId)")
+    int incrementVersionByUser(@Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByIdIn(Collection<Long> itemIds);
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item i where i.owner.id = ?1")
+    Slice<Item> findAllByOwnerId(Long ownerId, Pageable page);
+
+    @Query("select count(i) from Item i where i.owner.id = ?1")
+    long countByOwnerId(Long ownerId);
+
+    @Query("select i.id from Item i where i.owner.id = :userId or i.request.requestor.id = :userId")
+    List<Long> findIdsByOwnerOrRequestor(@Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item i where i.owner.id = ?1 and i.id > ?2")
+    Slice<Item> findAllByOwnerIdAndIdGreaterThan(Long ownerId, Long itemId, Pageable page);
 
-    Page<Item> findAllByOwnerId(Long ownerId, PageRequest page);
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item i " +
+            "where i.isAvailable = true " +
+            "and (lower(i.name) like lower(concat('%', :text, '%')) escape '\\' " +
+            "or lower(i.description) like lower(concat('%', :text, '%')) escape '\\')")
+    Slice<Item> searchAvailable(@Param("text") String text, Pageable page);
 
-    List<Item> findAllByOwnerId(Long ownerId);
+    @Query("select count(i) from Item i " +
+            "where i.isAvailable = true " +
+            "and (lower(i.name) like lower(concat('%', :text, '%')) escape '\\' " +
+            "or lower(i.description) like lower(concat('%', :text, '%')) escape '\\')")
+    long countAvailable(@Param("text") String text);
 
-    Page<Item> findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(String textName, String textDescription, PageRequest page);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.item.dto.ItemSearchDto(i.id, i.name, i.description) " +
+            "from Item i where i.isAvailable = true")
+    Stream<ItemSearchDto> streamAvailable();
 
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item i where i.request.id in ?1")
     List<Item> findAllByRequestIdIn(List<Long> listRequestIds);
 
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select i from Item i where i.request.id = ?1")
     List<Item> findAllByRequestId(Long requestId);
 }
@@ -5,8 +5,10 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.util.CountedPage;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     ItemDto create(Long userId, ItemDto itemDto);
@@ -15,9 +17,19 @@ public interface ItemService {
 
     ItemResponseDto findById(Long itemId, Long userId);
 
+    Optional<String> findETag(Long itemId, Long userId);
+
     List<ItemResponseDto> findAll(Long userId,PageRequest page);
 
+    List<ItemResponseDto> findAll(Long userId, Long afterId, int size);
+
+    CountedPage<ItemResponseDto> findAllWithTotal(Long userId, PageRequest page);
+
+    CountedPage<ItemResponseDto> findAllWithTotal(Long userId, Long afterId, int size);
+
     List<ItemDto> searchItems(Long userId, String text, PageRequest page);
 
+    CountedPage<ItemDto> searchItemsWithTotal(Long userId, String text, PageRequest page);
+
     CommentResponseDto createComment(Long userId, CommentDto commentDto, Long itemId);
 }
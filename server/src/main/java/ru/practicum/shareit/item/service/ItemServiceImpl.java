@@ -2,8 +2,10 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -18,14 +20,16 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
-import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.NotFoundExceptionEntity;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.util.CountedPage;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.BookingMapper.toBookingItemDto;
@@ -43,6 +47,8 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingCalendar bookingCalendar;
 
     @Transactional
     @Override
@@ -56,7 +62,9 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundExceptionEntity("Запрос на бронирование вещи не найден."));
             item.setRequest(itemRequest);
         }
-        return toItemDto(itemRepository.save(item));
+        final Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        return toItemDto(savedItem);
     }
 
     @Transactional
@@ -74,7 +82,9 @@ public class ItemServiceImpl implements ItemService {
             item.setDescription(itemDto.getDescription());
         if (itemDto.getAvailable() != null)
             item.setIsAvailable(itemDto.getAvailable());
-        return toItemDto(itemRepository.save(item));
+        final Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        return toItemDto(savedItem);
     }
 
     @Override
@@ -90,50 +100,77 @@ public class ItemServiceImpl implements ItemService {
         itemResponseDto.setComments(comments);
         final Long id = item.getOwner().getId();
         if (Objects.equals(userId, id)) {
-            final List<Booking> bookingList = bookingRepository.findByItem_IdAndStatusIs(itemId, BookingStatus.APPROVED);
-            return setDateBookings(itemResponseDto, bookingList);
+            final LocalDateTime time = LocalDateTime.now();
+            setDateBookings(itemResponseDto, bookingCalendar.find(itemId, time), time);
         }
         return itemResponseDto;
     }
 
+    @Override
+    public Optional<String> findETag(Long itemId, Long userId) {
+        chekUser(userId);
+        return itemRepository.findVersionForViewer(itemId, userId)
+                .map(version -> "W/\"item-" + itemId + "-" + version + "\"");
+    }
+
     @Override
     public List<ItemResponseDto> findAll(Long userId, PageRequest page) {
         chekUser(userId);
-        final List<ItemResponseDto> itemsList = itemRepository.findAllByOwnerId(userId, page)
+        return findByOwner(userId, page);
+    }
+
+    @Override
+    public List<ItemResponseDto> findAll(Long userId, Long afterId, int size) {
+        chekUser(userId);
+        return findByOwner(userId, afterId, size);
+    }
+
+    @Override
+    public CountedPage<ItemResponseDto> findAllWithTotal(Long userId, PageRequest page) {
+        chekUser(userId);
+        return new CountedPage<>(findByOwner(userId, page), itemRepository.countByOwnerId(userId));
+    }
+
+    @Override
+    public CountedPage<ItemResponseDto> findAllWithTotal(Long userId, Long afterId, int size) {
+        chekUser(userId);
+        return new CountedPage<>(findByOwner(userId, afterId, size), itemRepository.countByOwnerId(userId));
+    }
+
+    private List<ItemResponseDto> findByOwner(Long userId, PageRequest page) {
+        return addDetailsToItems(itemRepository.findAllByOwnerId(userId, page).getContent());
+    }
+
+    private List<ItemResponseDto> findByOwner(Long userId, Long afterId, int size) {
+        final PageRequest page = PageRequest.of(0, size, Sort.by("id"));
+        return addDetailsToItems(itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, afterId, page).getContent());
+    }
+
+    private List<ItemResponseDto> addDetailsToItems(List<Item> items) {
+        final List<ItemResponseDto> itemsList = items
+                .stream()
                 .map(ItemMapper::toItemResponseDto)
-                .getContent();
+                .collect(Collectors.toList());
         final List<Long> itemsId = itemsList
                 .stream()
                 .map(ItemResponseDto::getId)
                 .collect(Collectors.toList());
-        final List<Comment> comments = commentRepository.findAll();
-        final List<Booking> bookingList = bookingRepository.findAllByItem_IdInAndStatusIs(itemsId, BookingStatus.APPROVED);
+        final Map<Long, List<CommentResponseDto>> comments = findCommentsByItems(itemsId);
+        final LocalDateTime time = LocalDateTime.now();
+        final Map<Long, BookingCalendar.Timeline> timelines = bookingCalendar.findAll(itemsId, time);
         return itemsList
                 .stream()
                 .map(itemDto -> addCommentsToItem(itemDto, comments))
-                .map(itemDto -> setDateBookings(itemDto, bookingList))
+                .map(itemDto -> setDateBookings(itemDto, timelines.get(itemDto.getId()), time))
                 .collect(Collectors.toList());
     }
 
-    private ItemResponseDto setDateBookings(ItemResponseDto itemsDto, List<Booking> bookingList) {
-        final LocalDateTime time = LocalDateTime.now();
-        Optional<Booking> bookingLast = bookingList
-                .stream()
-                .filter(booking -> Objects.equals(booking.getItem().getId(), itemsDto.getId()))
-                .sorted(Comparator.comparing(Booking::getEnd).reversed())
-                .filter(booking -> booking.getStart().isBefore(time))
-                .limit(1)
-                .findAny();
-        bookingLast.ifPresent(booking -> itemsDto.setLastBooking(toBookingItemDto(booking)));
-
-        Optional<Booking> bookingNext = bookingList
-                .stream()
-                .filter(booking -> Objects.equals(booking.getItem().getId(), itemsDto.getId()))
-                .sorted(Comparator.comparing(Booking::getStart))
-                .filter(booking -> booking.getStart().isAfter(time))
-                .limit(1)
-                .findAny();
-        bookingNext.ifPresent(booking -> itemsDto.setNextBooking(toBookingItemDto(booking)));
+    private ItemResponseDto setDateBookings(ItemResponseDto itemsDto, BookingCalendar.Timeline timeline,
+                                            LocalDateTime time) {
+        timeline.findLast(time)
+                .ifPresent(interval -> itemsDto.setLastBooking(toBookingItemDto(interval)));
+        timeline.findNext(time)
+                .ifPresent(interval -> itemsDto.setNextBooking(toBookingItemDto(interval)));
         return itemsDto;
     }
 
@@ -142,11 +179,47 @@ public class ItemServiceImpl implements ItemService {
         if (text == null || text.isBlank())
             return Collections.emptyList();
         chekUser(userId);
-        return itemRepository.findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(text, text, page)
+        if (!itemSearchIndex.isReady())
+            return searchAvailable(escapeLike(text), page);
+        return findSearchPage(itemSearchIndex.search(text), page);
+    }
+
+    @Override
+    public CountedPage<ItemDto> searchItemsWithTotal(Long userId, String text, PageRequest page) {
+        if (text == null || text.isBlank())
+            return new CountedPage<>(Collections.emptyList(), 0);
+        chekUser(userId);
+        if (!itemSearchIndex.isReady()) {
+            final String pattern = escapeLike(text);
+            return new CountedPage<>(searchAvailable(pattern, page), itemRepository.countAvailable(pattern));
+        }
+        final long[] itemsId = itemSearchIndex.search(text);
+        return new CountedPage<>(findSearchPage(itemsId, page), itemsId.length);
+    }
+
+    private List<ItemDto> searchAvailable(String pattern, PageRequest page) {
+        return itemRepository.searchAvailable(pattern, page)
                 .map(ItemMapper::toItemDto)
                 .getContent();
     }
 
+    private List<ItemDto> findSearchPage(long[] itemsId, PageRequest page) {
+        final int from = (int) Math.min(page.getOffset(), itemsId.length);
+        final int to = Math.min(from + page.getPageSize(), itemsId.length);
+        final List<Long> pageItemsId = Arrays.stream(itemsId, from, to)
+                .boxed()
+                .collect(Collectors.toList());
+        final Map<Long, Item> items = itemRepository.findAllByIdIn(pageItemsId)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return pageItemsId
+                .stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     @Override
     public CommentResponseDto createComment(Long userId, CommentDto commentDto, Long itemId) {
@@ -164,21 +237,33 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(author);
         comment.setItem(item);
         commentRepository.save(comment);
+        itemRepository.incrementVersion(itemId);
         return toCommentResponseDto(comment);
     }
 
     private User chekUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден."));
+        if (!userRepository.existsById(userId))
+            throw new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден.");
+        return userRepository.getReferenceById(userId);
     }
 
-    private ItemResponseDto addCommentsToItem(ItemResponseDto item, List<Comment> comments) {
-        List<CommentResponseDto> commentResponseDtoList = comments
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private Map<Long, List<CommentResponseDto>> findCommentsByItems(List<Long> itemsId) {
+        if (itemsId.isEmpty())
+            return Collections.emptyMap();
+        return commentRepository.findAllByItemIdIn(itemsId)
                 .stream()
-                .filter(c -> c.getItem().getId().equals(item.getId()))
-                .map(CommentMapper::toCommentResponseDto)
-                .collect(Collectors.toList());
-        item.setComments(commentResponseDtoList);
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentResponseDto, Collectors.toList())));
+    }
+
+    private ItemResponseDto addCommentsToItem(ItemResponseDto item, Map<Long, List<CommentResponseDto>> comments) {
+        item.setComments(comments.getOrDefault(item.getId(), Collections.emptyList()));
         return item;
     }
 }
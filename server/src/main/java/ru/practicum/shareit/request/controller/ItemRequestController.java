@@ -4,10 +4,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.CountedPage;
+import ru.practicum.shareit.util.Cursor;
 
 import java.util.List;
 
@@ -36,14 +39,28 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> findAll(@RequestHeader(USER_ID) Long userId,
-                                        @RequestParam(value = FROM, defaultValue = "0") Integer from,
-                                        @RequestParam(value = SIZE, defaultValue = "10") Integer size) {
+    public ResponseEntity<List<ItemRequestDto>> findAll(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(value = FROM, defaultValue = "0") Integer from,
+            @RequestParam(value = SIZE, defaultValue = "10") Integer size,
+            @RequestParam(value = AFTER, required = false) String after,
+            @RequestHeader(value = TOTAL_COUNT, defaultValue = "false") boolean withTotal) {
         final Sort sort = Sort.by("created").descending();
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size, sort);
-        final List<ItemRequestDto> itemRequestDto = itemRequestService.findAll(userId, page);
+        if (withTotal) {
+            final CountedPage<ItemRequestDto> itemRequestDto = after != null
+                    ? itemRequestService.findAllWithTotal(userId, Cursor.from(after), size)
+                    : itemRequestService.findAllWithTotal(userId, page);
+            log.debug("Получен список всех запросов для пользователя: {}", userId);
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT, String.valueOf(itemRequestDto.getTotal()))
+                    .body(itemRequestDto.getContent());
+        }
+        final List<ItemRequestDto> itemRequestDto = after != null
+                ? itemRequestService.findAll(userId, Cursor.from(after), size)
+                : itemRequestService.findAll(userId, page);
         log.debug("Получен список всех запросов для пользователя: {}", userId);
-        return itemRequestDto;
+        return ResponseEntity.ok(itemRequestDto);
     }
 
     @GetMapping("/{requestId}")
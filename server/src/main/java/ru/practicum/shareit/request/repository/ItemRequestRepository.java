@@ -1,15 +1,26 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestor_Id(Long userId, Sort sort);
 
-    Page<ItemRequest> findAllByRequestor_IdNot(Long userId, PageRequest page);
+    Slice<ItemRequest> findAllByRequestor_IdNot(Long userId, Pageable page);
+
+    long countByRequestor_IdNot(Long userId);
+
+    @Query("select r from ItemRequest r where r.requestor.id <> :userId " +
+            "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            "order by r.created desc, r.id desc")
+    Slice<ItemRequest> findAllByRequestorNotAfter(@Param("userId") Long userId, @Param("created") LocalDateTime created,
+                                                  @Param("id") Long id, Pageable page);
 }
@@ -2,6 +2,8 @@ package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.util.CountedPage;
+import ru.practicum.shareit.util.Cursor;
 
 import java.util.List;
 
@@ -12,6 +14,12 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> findAll(Long userId, PageRequest page);
 
+    List<ItemRequestDto> findAll(Long userId, Cursor after, int size);
+
+    CountedPage<ItemRequestDto> findAllWithTotal(Long userId, PageRequest page);
+
+    CountedPage<ItemRequestDto> findAllWithTotal(Long userId, Cursor after, int size);
+
     ItemRequestDto findByRequestId(Long userId, Long requestId);
 
 }
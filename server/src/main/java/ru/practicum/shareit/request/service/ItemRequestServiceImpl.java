@@ -15,6 +15,8 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.CountedPage;
+import ru.practicum.shareit.util.Cursor;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -33,8 +35,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
-        final User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден."));
+        if (!checkUser(userId))
+            throw new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден.");
+        final User user = userRepository.getReferenceById(userId);
         final ItemRequest itemRequest = toItemRequest(itemRequestDto, user);
         return toItemRequestDto(itemRequestRepository.save(itemRequest));
     }
@@ -55,12 +58,45 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> findAll(Long userId, PageRequest page) {
         if (!checkUser(userId))
             throw new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден.");
+        return findOthers(userId, page);
+    }
+
+    @Override
+    public List<ItemRequestDto> findAll(Long userId, Cursor after, int size) {
+        if (!checkUser(userId))
+            throw new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден.");
+        return findOthers(userId, after, size);
+    }
+
+    @Override
+    public CountedPage<ItemRequestDto> findAllWithTotal(Long userId, PageRequest page) {
+        if (!checkUser(userId))
+            throw new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден.");
+        return new CountedPage<>(findOthers(userId, page), itemRequestRepository.countByRequestor_IdNot(userId));
+    }
+
+    @Override
+    public CountedPage<ItemRequestDto> findAllWithTotal(Long userId, Cursor after, int size) {
+        if (!checkUser(userId))
+            throw new NotFoundExceptionEntity("Пользователь с идентификатором : " + userId + " не найден.");
+        return new CountedPage<>(findOthers(userId, after, size), itemRequestRepository.countByRequestor_IdNot(userId));
+    }
+
+    private List<ItemRequestDto> findOthers(Long userId, PageRequest page) {
         final List<ItemRequestDto> itemRequestDtoList = itemRequestRepository.findAllByRequestor_IdNot(userId, page)
                 .map(ItemRequestMapper::toItemRequestDto)
                 .getContent();
         return addDetailsToRequests(itemRequestDtoList);
     }
 
+    private List<ItemRequestDto> findOthers(Long userId, Cursor after, int size) {
+        final List<ItemRequestDto> itemRequestDtoList = itemRequestRepository
+                .findAllByRequestorNotAfter(userId, after.getTime(), after.getId(), PageRequest.of(0, size))
+                .map(ItemRequestMapper::toItemRequestDto)
+                .getContent();
+        return addDetailsToRequests(itemRequestDtoList);
+    }
+
     @Override
     public ItemRequestDto findByRequestId(Long userId, Long requestId) {
         if (!checkUser(userId))
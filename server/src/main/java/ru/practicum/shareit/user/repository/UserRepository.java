@@ -1,7 +1,13 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
+import static ru.practicum.shareit.config.CacheConfig.USERS;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Override
+    @Cacheable(cacheNames = USERS, key = "#p0", unless = "!#result")
+    boolean existsById(Long userId);
 }
@@ -1,18 +1,28 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCalendar;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.exeption.NotFoundExceptionEntity;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.util.EntityCacheEvictor;
 
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.config.CacheConfig.USERS;
 import static ru.practicum.shareit.user.UserMapper.toUser;
 import static ru.practicum.shareit.user.UserMapper.toUserDto;
 
@@ -22,6 +32,11 @@ import static ru.practicum.shareit.user.UserMapper.toUserDto;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingCalendar bookingCalendar;
+    private final ItemSearchIndex itemSearchIndex;
+    private final EntityCacheEvictor entityCacheEvictor;
 
     @Transactional
     @Override
@@ -37,22 +52,32 @@ public class UserServiceImpl implements UserService {
 
     @Transactional
     @Override
+    @CacheEvict(cacheNames = USERS, key = "#userId")
     public UserDto update(Long userId, UserDto userDto) {
-        User userUpdate = toUser(userDto);
-        userUpdate.setId(userId);
-        User updatedUser = chekUser(userId);
-        if (userUpdate.getName() == null)
-            userUpdate.setName(updatedUser.getName());
-        if (userUpdate.getEmail() == null)
-            userUpdate.setEmail(updatedUser.getEmail());
-        userRepository.save(userUpdate);
-        return toUserDto(userUpdate);
+        final User user = chekUser(userId);
+        final String name = userDto.getName() == null ? user.getName() : userDto.getName();
+        final String email = userDto.getEmail() == null ? user.getEmail() : userDto.getEmail();
+        final boolean changed = !Objects.equals(name, user.getName()) || !Objects.equals(email, user.getEmail());
+        user.setName(name);
+        user.setEmail(email);
+        final User updatedUser = userRepository.save(user);
+        if (changed) {
+            itemRepository.incrementVersionByUser(userId);
+            bookingRepository.incrementVersionByBooker(userId);
+        }
+        return toUserDto(updatedUser);
     }
 
     @Transactional
     @Override
+    @CacheEvict(cacheNames = USERS, key = "#userId")
     public void delete(Long userId) {
+        final List<Long> bookedItemIds = bookingRepository.findItemIdsByBooker(userId);
+        final List<Long> removedItemIds = itemRepository.findIdsByOwnerOrRequestor(userId);
         userRepository.deleteById(userId);
+        bookingCalendar.evict(bookedItemIds);
+        removedItemIds.forEach(itemSearchIndex::remove);
+        entityCacheEvictor.evict(Item.class, ItemRequest.class);
     }
 
     @Override
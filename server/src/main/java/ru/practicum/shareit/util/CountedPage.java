@@ -0,0 +1,13 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CountedPage<T> {
+    private final List<T> content;
+    private final long total;
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.exeption.NotFoundException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class Cursor {
+    private final LocalDateTime time;
+    private final Long id;
+
+    public static Cursor from(String after) {
+        final int separator = after.lastIndexOf(',');
+        try {
+            return new Cursor(LocalDateTime.parse(after.substring(0, separator).trim()),
+                    Long.valueOf(after.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            throw new NotFoundException("Некорректное значение параметра after : " + after);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.util;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(Class<?>... entityClasses) {
+        evictNow(entityClasses);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(entityClasses);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Class<?>[] entityClasses) {
+        final Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (Class<?> entityClass : entityClasses)
+            cache.evictEntityData(entityClass);
+        cache.evictQueryRegions();
+    }
+}
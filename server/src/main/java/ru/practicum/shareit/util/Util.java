@@ -5,4 +5,6 @@ public class Util {
     public static final String STATE = "state";
     public static final String FROM = "from";
     public static final String SIZE = "size";
+    public static final String AFTER = "after";
+    public static final String TOTAL_COUNT = "X-Total-Count";
 }
@@ -0,0 +1,30 @@
+CREATE TEMPORARY TABLE kept_bookings (
+   item_id BIGINT NOT NULL,
+   period TSRANGE NOT NULL
+) ON COMMIT DROP;
+CREATE INDEX ON kept_bookings (item_id);
+
+DO $$
+DECLARE
+    booking RECORD;
+BEGIN
+    FOR booking IN
+        SELECT b.id, b.item_id, tsrange(b.start_date, b.end_date) AS period
+        FROM bookings b
+        WHERE b.status IN ('WAITING', 'APPROVED')
+          AND EXISTS (SELECT 1
+                      FROM bookings o
+                      WHERE o.item_id = b.item_id
+                        AND o.id <> b.id
+                        AND o.status IN ('WAITING', 'APPROVED')
+                        AND o.start_date < b.end_date
+                        AND o.end_date > b.start_date)
+        ORDER BY b.item_id, b.status = 'APPROVED' DESC, b.start_date, b.id
+    LOOP
+        IF EXISTS (SELECT 1 FROM kept_bookings k WHERE k.item_id = booking.item_id AND k.period && booking.period) THEN
+            UPDATE bookings SET status = 'REJECTED', version = version + 1 WHERE id = booking.id;
+        ELSE
+            INSERT INTO kept_bookings (item_id, period) VALUES (booking.item_id, booking.period);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,157 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@Transactional
+@SpringBootTest(
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class FetchPlanTest {
+    private static final int COUNT = 10;
+    private final EntityManager em;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final Sort sort = Sort.by("start").descending();
+    private Statistics statistics;
+    private User booker;
+    private User owner;
+
+    @BeforeEach
+    public void createEnvironment() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        booker = createUser("Серж", "booker@mail.ru");
+        owner = createUser("Женя", "owner@mail.ru");
+        for (int i = 0; i < COUNT; i++) {
+            final User itemOwner = createUser("Владелец " + i, "owner" + i + "@mail.ru");
+            final User itemBooker = createUser("Арендатор " + i, "booker" + i + "@mail.ru");
+            final Item foreignItem = createItem(itemOwner);
+            final Item ownItem = createItem(owner);
+            createBooking(foreignItem, booker);
+            createBooking(ownItem, itemBooker);
+            final Comment comment = new Comment();
+            comment.setText("Норм");
+            comment.setItem(ownItem);
+            comment.setAuthor(itemBooker);
+            em.persist(comment);
+        }
+        em.flush();
+        em.clear();
+        userRepository.existsById(booker.getId());
+        userRepository.existsById(owner.getId());
+    }
+
+    @Test
+    void findAllByBookerStatementsDoNotDependOnPageSize() {
+        final long small = countStatements(() -> bookingService.findAllByBooker(booker.getId(), "ALL",
+                PageRequest.of(0, 2, sort)).size());
+        final long large = countStatements(() -> bookingService.findAllByBooker(booker.getId(), "ALL",
+                PageRequest.of(0, COUNT, sort)).size());
+
+        assertThat(large, equalTo(small));
+    }
+
+    @Test
+    void findAllByOwnerStatementsDoNotDependOnPageSize() {
+        final long small = countStatements(() -> bookingService.findAllByOwner(owner.getId(), "ALL",
+                PageRequest.of(0, 2, sort)).size());
+        final long large = countStatements(() -> bookingService.findAllByOwner(owner.getId(), "ALL",
+                PageRequest.of(0, COUNT, sort)).size());
+
+        assertThat(large, equalTo(small));
+    }
+
+    @Test
+    void findAllItemsStatementsDoNotDependOnPageSize() {
+        final long small = countStatements(() -> itemService.findAll(owner.getId(),
+                PageRequest.of(0, 2, Sort.by("id"))).size());
+        final long large = countStatements(() -> itemService.findAll(owner.getId(),
+                PageRequest.of(0, COUNT, Sort.by("id"))).size());
+
+        assertThat(large, equalTo(small));
+    }
+
+    @Test
+    void findAllByBookerIssuesOnlyListQuery() {
+        final long statements = countStatements(() -> bookingService.findAllByBooker(booker.getId(), "ALL",
+                PageRequest.of(0, 2, sort)).size());
+
+        assertThat(statements, equalTo(1L));
+    }
+
+    @Test
+    void findAllByBookerWithTotalIssuesListAndCountQueries() {
+        final long statements = countStatements(() -> bookingService.findAllByBookerWithTotal(booker.getId(), "ALL",
+                PageRequest.of(0, 2, sort)).getContent().size());
+
+        assertThat(statements, equalTo(2L));
+    }
+
+    @Test
+    void totalsMatchAllBookings() {
+        assertThat(bookingService.findAllByBookerWithTotal(booker.getId(), "ALL", PageRequest.of(0, 2, sort))
+                .getTotal(), equalTo((long) COUNT));
+        assertThat(bookingService.findAllByOwnerWithTotal(owner.getId(), "FUTURE", PageRequest.of(0, 2, sort))
+                .getTotal(), equalTo((long) COUNT));
+    }
+
+    private long countStatements(Supplier<Integer> call) {
+        em.clear();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User createUser(String name, String email) {
+        final User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        em.persist(user);
+        return user;
+    }
+
+    private Item createItem(User itemOwner) {
+        final Item item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Новая");
+        item.setIsAvailable(Boolean.TRUE);
+        item.setOwner(itemOwner);
+        em.persist(item);
+        return item;
+    }
+
+    private void createBooking(Item item, User user) {
+        final Booking booking = new Booking();
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        booking.setItem(item);
+        booking.setBooker(user);
+        booking.setStatus(BookingStatus.APPROVED);
+        em.persist(booking);
+    }
+}
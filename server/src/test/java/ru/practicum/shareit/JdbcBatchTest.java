@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+
+@Transactional
+@SpringBootTest(
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class JdbcBatchTest {
+    private static final int COUNT = 200;
+    private static final int ALLOCATION_SIZE = 50;
+    private final EntityManager em;
+    private Statistics statistics;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void createEnvironment() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        booker = new User();
+        booker.setName("Серж");
+        booker.setEmail("batch.booker@mail.ru");
+        em.persist(booker);
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Новая");
+        item.setIsAvailable(Boolean.TRUE);
+        item.setOwner(booker);
+        em.persist(item);
+        em.flush();
+    }
+
+    @Test
+    void bookingInsertsAreBatched() {
+        statistics.clear();
+        final LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < COUNT; i++) {
+            final Booking booking = new Booking();
+            booking.setStart(start.plusHours(i));
+            booking.setEnd(start.plusHours(i).plusMinutes(30));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(BookingStatus.WAITING);
+            em.persist(booking);
+        }
+        em.flush();
+
+        assertThat(statistics.getEntityInsertCount(), equalTo((long) COUNT));
+        assertThat(statistics.getPrepareStatementCount(), lessThan(10L));
+    }
+
+    @Test
+    void rawInsertGetsIdOutsidePooledBlocks() {
+        em.createNativeQuery("insert into users (name, email) values ('Серж', 'raw.insert@mail.ru')").executeUpdate();
+        final Long rawId = ((Number) em.createNativeQuery("select id from users where email = 'raw.insert@mail.ru'")
+                .getSingleResult()).longValue();
+        final List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 2 * ALLOCATION_SIZE; i++) {
+            final User user = new User();
+            user.setName("Серж");
+            user.setEmail("pooled" + i + "@mail.ru");
+            em.persist(user);
+            ids.add(user.getId());
+        }
+        em.flush();
+
+        assertThat(ids, not(hasItem(rawId)));
+        assertThat(ids, not(hasItem(booker.getId())));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.util.OptimisticRetry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.*;
+
+public class OptimisticRetryTest {
+    private PlatformTransactionManager transactionManager;
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    public void createEnvironment() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        optimisticRetry = new OptimisticRetry(transactionManager, 3, Duration.ZERO);
+    }
+
+    @Test
+    void retriesConflictAndReturnsResult() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final Integer result = optimisticRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3)
+                throw new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+            return attempts.get();
+        });
+
+        assertThat(result, equalTo(3));
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+        }));
+        assertThat(attempts.get(), equalTo(3));
+    }
+
+    @Test
+    void doesNotRetryOtherExceptions() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+        assertThat(attempts.get(), equalTo(1));
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Optional;
+
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+public class QueryPlanPostgresTest extends QueryPlanTest {
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> System.getenv("SHAREIT_TEST_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> Optional.ofNullable(System.getenv("SHAREIT_TEST_POSTGRES_USER"))
+                .orElse("root"));
+        registry.add("spring.datasource.password", () -> Optional.ofNullable(System.getenv("SHAREIT_TEST_POSTGRES_PASSWORD"))
+                .orElse("root"));
+    }
+}
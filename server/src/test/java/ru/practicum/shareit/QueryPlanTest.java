@@ -0,0 +1,165 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Transactional
+@SpringBootTest(
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.QueryPlanTest$SqlRecorder",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class QueryPlanTest {
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @BeforeEach
+    public void clearStatements() {
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void bookingsByBookerUseIndex() {
+        bookingRepository.findAllByBookerAfter(1L, LocalDateTime.now(), Long.MAX_VALUE, PAGE);
+
+        assertIndex("idx_bookings_booker_start");
+    }
+
+    @Test
+    void lastBookingOfItemUsesIndex() {
+        bookingRepository.findLastByItem(1L, List.of(BookingStatus.APPROVED), LocalDateTime.now(), PAGE);
+
+        assertIndex("idx_bookings_item_status_start");
+    }
+
+    @Test
+    void overlapProbeUsesIndex() {
+        bookingRepository.findLastByItem(1L, List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                LocalDateTime.now(), PAGE);
+
+        assertIndex("idx_bookings_item_status_start");
+    }
+
+    @Test
+    void nextBookingsOfItemsUseIndex() {
+        bookingRepository.findNextByItems(List.of(1L, 2L), BookingStatus.APPROVED, LocalDateTime.now());
+
+        assertIndex("idx_bookings_item_status_start");
+    }
+
+    @Test
+    void itemsByOwnerUseIndex() {
+        itemRepository.findAllByOwnerIdAndIdGreaterThan(1L, 0L, PAGE);
+
+        assertIndex("idx_items_owner");
+    }
+
+    @Test
+    void itemsByRequestUseIndex() {
+        if (isPostgres())
+            fillRequestedItems();
+        itemRepository.findAllByRequestIdIn(List.of(1L, 2L));
+
+        assertIndex("idx_items_request");
+    }
+
+    @Test
+    void commentsByItemUseIndex() {
+        commentRepository.findAllByItemIdIn(List.of(1L, 2L));
+
+        assertIndex("idx_comments_item");
+    }
+
+    @Test
+    void requestsByRequestorUseIndex() {
+        assumeTrue(isPostgres(), "H2 не различает индексы с одинаковым первым столбцом");
+        itemRequestRepository.findAllByRequestor_Id(1L, Sort.by(Sort.Direction.DESC, "created"));
+
+        assertIndex("idx_requests_requestor_created");
+    }
+
+    private void fillRequestedItems() {
+        jdbcTemplate.update("insert into users (name, email) values ('План', 'query-plan@mail.ru')");
+        jdbcTemplate.update("insert into requests (description, requestor_id, created) " +
+                "select 'Запрос', u.id, now() from users u, generate_series(1, 100) where u.email = 'query-plan@mail.ru'");
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id, request_id) " +
+                "select 'Вещь', 'Описание', true, r.requestor_id, r.id from requests r, generate_series(1, 20)");
+        jdbcTemplate.execute("ANALYZE items");
+    }
+
+    private void assertIndex(String index) {
+        final String sql = SqlRecorder.STATEMENTS.get(SqlRecorder.STATEMENTS.size() - 1);
+        final String plan = explain(sql);
+
+        assertThat(sql + "\n" + plan, Pattern.compile(index + "[^\n]*(:|\n\\s*Index Cond)",
+                Pattern.CASE_INSENSITIVE).matcher(plan).find(), equalTo(true));
+    }
+
+    private String explain(String sql) {
+        final int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        final List<String> plan;
+        if (isPostgres()) {
+            final StringBuilder numbered = new StringBuilder();
+            int parameter = 0;
+            for (char c : sql.toCharArray())
+                numbered.append(c == '?' ? "$" + ++parameter : String.valueOf(c));
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            jdbcTemplate.execute("PREPARE query_plan AS " + numbered);
+            final String arguments = parameters == 0 ? ""
+                    : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+            plan = jdbcTemplate.queryForList("EXPLAIN EXECUTE query_plan" + arguments, String.class);
+            jdbcTemplate.execute("DEALLOCATE query_plan");
+        } else {
+            plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, new Object[parameters]);
+        }
+        return plan.stream().collect(Collectors.joining("\n"));
+    }
+
+    private boolean isPostgres() {
+        return jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName())
+                .equalsIgnoreCase("PostgreSQL");
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
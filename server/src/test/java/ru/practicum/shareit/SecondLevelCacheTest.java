@@ -0,0 +1,139 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+@SpringBootTest(
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SecondLevelCacheTest {
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserService userService;
+    private Statistics statistics;
+    private User user;
+    private ItemRequest itemRequest;
+    private Item item;
+
+    @BeforeEach
+    public void createEnvironment() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = new User();
+        user.setName("Серж");
+        user.setEmail("l2cache@mail.ru");
+        userRepository.save(user);
+        itemRequest = new ItemRequest();
+        itemRequest.setDescription("Новая дрель");
+        itemRequest.setRequestor(user);
+        itemRequest.setCreated(LocalDateTime.now());
+        itemRequestRepository.save(itemRequest);
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Новая");
+        item.setIsAvailable(Boolean.TRUE);
+        item.setOwner(user);
+        item.setRequest(itemRequest);
+        itemRepository.save(item);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanEnvironment() {
+        itemRepository.deleteById(item.getId());
+        itemRequestRepository.deleteById(itemRequest.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void userIsServedFromSecondLevelCache() {
+        userRepository.findById(user.getId());
+        statistics.clear();
+
+        var result = userRepository.findById(user.getId());
+
+        assertThat(result.get().getEmail(), equalTo(user.getEmail()));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getSecondLevelCacheHitCount(), equalTo(1L));
+    }
+
+    @Test
+    void itemsByRequestAreServedFromQueryCache() {
+        itemRepository.findAllByRequestId(itemRequest.getId());
+        statistics.clear();
+
+        var result = itemRepository.findAllByRequestId(itemRequest.getId());
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getQueryCacheHitCount(), equalTo(1L));
+    }
+
+    @Test
+    void queryCacheIsInvalidatedOnItemInsert() {
+        itemRepository.findAllByRequestId(itemRequest.getId());
+        final Item other = new Item();
+        other.setName("Молоток");
+        other.setDescription("Тяжелый");
+        other.setIsAvailable(Boolean.TRUE);
+        other.setOwner(user);
+        other.setRequest(itemRequest);
+        itemRepository.save(other);
+
+        var result = itemRepository.findAllByRequestId(itemRequest.getId());
+
+        assertThat(result.size(), equalTo(2));
+        itemRepository.deleteById(other.getId());
+    }
+
+    @Test
+    void cascadedRowsAreEvictedOnUserDelete() {
+        final User requestor = new User();
+        requestor.setName("Женя");
+        requestor.setEmail("l2cache.requestor@mail.ru");
+        userRepository.save(requestor);
+        final ItemRequest otherRequest = new ItemRequest();
+        otherRequest.setDescription("Нужен молоток");
+        otherRequest.setRequestor(requestor);
+        otherRequest.setCreated(LocalDateTime.now());
+        itemRequestRepository.save(otherRequest);
+        final Item answer = new Item();
+        answer.setName("Молоток");
+        answer.setDescription("Тяжелый");
+        answer.setIsAvailable(Boolean.TRUE);
+        answer.setOwner(user);
+        answer.setRequest(otherRequest);
+        itemRepository.save(answer);
+        assertThat(itemRepository.findById(answer.getId()).orElse(null), notNullValue());
+        assertThat(itemRequestRepository.findById(otherRequest.getId()).orElse(null), notNullValue());
+        assertThat(itemRepository.findAllByRequestId(otherRequest.getId()).size(), equalTo(1));
+
+        userService.delete(requestor.getId());
+
+        assertThat(itemRepository.findById(answer.getId()).isEmpty(), equalTo(true));
+        assertThat(itemRequestRepository.findById(otherRequest.getId()).isEmpty(), equalTo(true));
+        assertThat(itemRepository.findAllByRequestId(otherRequest.getId()).size(), equalTo(0));
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.bookingTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingCalendar;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BookingCalendarTest {
+    private BookingRepository bookingRepository;
+    private BookingCalendar bookingCalendar;
+    private Item item;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void createEnvironment() {
+        bookingRepository = mock(BookingRepository.class);
+        bookingCalendar = new BookingCalendar(bookingRepository, 100, Duration.ofMinutes(1), true);
+        item = new Item();
+        item.setId(1L);
+        booker = new User();
+        booker.setId(2L);
+        now = LocalDateTime.now();
+        when(bookingRepository.findLastByItem(anyLong(), any(), any(), any()))
+                .thenReturn(List.of(createBooking(1L, now.minusDays(3), BookingStatus.APPROVED)));
+        when(bookingRepository.findNextByItem(anyLong(), any(), any(), any()))
+                .thenReturn(List.of(createBooking(3L, now.plusDays(2), BookingStatus.APPROVED)));
+    }
+
+    @Test
+    void findsLastAndNextApprovedAndLoadsOnce() {
+        assertThat(bookingCalendar.find(item.getId(), now).findLast(now).orElseThrow().getId(), equalTo(1L));
+        assertThat(bookingCalendar.find(item.getId(), now).findNext(now).orElseThrow().getId(), equalTo(3L));
+        verify(bookingRepository, times(1)).findLastByItem(
+                eq(item.getId()), eq(List.of(BookingStatus.APPROVED)), eq(now), any());
+        verify(bookingRepository, times(1)).findNextByItem(
+                eq(item.getId()), eq(List.of(BookingStatus.APPROVED)), eq(now), any());
+    }
+
+    @Test
+    void reloadsWhenTimeLeavesLoadedWindow() {
+        bookingCalendar.find(item.getId(), now);
+        var later = now.plusDays(1);
+
+        assertThat(bookingCalendar.find(item.getId(), later).findNext(later).orElseThrow().getId(), equalTo(3L));
+        verify(bookingRepository, times(1)).findNextByItem(
+                anyLong(), any(), any(), any());
+
+        var afterNext = now.plusDays(2).plusHours(1);
+        when(bookingRepository.findLastByItem(anyLong(), any(), any(), any()))
+                .thenReturn(List.of(createBooking(3L, now.plusDays(2), BookingStatus.APPROVED)));
+        when(bookingRepository.findNextByItem(anyLong(), any(), any(), any()))
+                .thenReturn(List.of(createBooking(4L, now.plusDays(5), BookingStatus.APPROVED)));
+
+        var timeline = bookingCalendar.find(item.getId(), afterNext);
+
+        assertThat(timeline.findLast(afterNext).orElseThrow().getId(), equalTo(3L));
+        assertThat(timeline.findNext(afterNext).orElseThrow().getId(), equalTo(4L));
+        verify(bookingRepository, times(1)).findNextByItem(
+                anyLong(), any(), eq(afterNext), any());
+    }
+
+    @Test
+    void findAllLoadsMissingItemsInBoundedQueries() {
+        bookingCalendar.find(item.getId(), now);
+        when(bookingRepository.findNextByItems(eq(List.of(2L)), eq(BookingStatus.APPROVED), eq(now)))
+                .thenReturn(List.of());
+
+        var timelines = bookingCalendar.findAll(List.of(item.getId(), 2L), now);
+
+        assertThat(timelines.get(item.getId()).findNext(now).orElseThrow().getId(), equalTo(3L));
+        assertThat(timelines.get(2L).findNext(now).isEmpty(), equalTo(true));
+        verify(bookingRepository).findLastByItems(eq(List.of(2L)), eq(BookingStatus.APPROVED), eq(now));
+        verify(bookingRepository).findNextByItems(eq(List.of(2L)), eq(BookingStatus.APPROVED), eq(now));
+        bookingCalendar.findAll(List.of(item.getId(), 2L), now);
+        verify(bookingRepository, times(1)).findNextByItems(anyCollection(), any(), any());
+    }
+
+    @Test
+    void saveWritesStatusChangesThrough() {
+        bookingCalendar.find(item.getId(), now);
+
+        bookingCalendar.save(createBooking(2L, now.minusDays(1), BookingStatus.APPROVED));
+        assertThat(bookingCalendar.find(item.getId(), now).findLast(now).orElseThrow().getId(), equalTo(2L));
+
+        bookingCalendar.save(createBooking(5L, now.plusDays(1), BookingStatus.REJECTED));
+        assertThat(bookingCalendar.find(item.getId(), now).findNext(now).orElseThrow().getId(), equalTo(3L));
+        verify(bookingRepository, times(1)).findNextByItem(
+                anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void removedIntervalDropsCachedWindow() {
+        bookingCalendar.find(item.getId(), now);
+
+        bookingCalendar.save(createBooking(3L, now.plusDays(2), BookingStatus.REJECTED));
+        bookingCalendar.find(item.getId(), now);
+
+        verify(bookingRepository, times(2)).findNextByItem(
+                anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void saveWaitsForCommit() {
+        bookingCalendar.find(item.getId(), now);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingCalendar.save(createBooking(2L, now.minusDays(1), BookingStatus.APPROVED));
+            assertThat(bookingCalendar.find(item.getId(), now).findLast(now).orElseThrow().getId(), equalTo(1L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(bookingCalendar.find(item.getId(), now).findLast(now).orElseThrow().getId(), equalTo(2L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void staleBulkLoadIsNotCached() {
+        when(bookingRepository.findNextByItems(anyCollection(), any(), any()))
+                .thenAnswer(invocation -> {
+                    bookingCalendar.save(createBooking(2L, now.minusDays(1), BookingStatus.APPROVED));
+                    return List.of(createBooking(3L, now.plusDays(2), BookingStatus.APPROVED));
+                });
+
+        bookingCalendar.findAll(List.of(item.getId()), now);
+        bookingCalendar.findAll(List.of(item.getId()), now);
+
+        verify(bookingRepository, times(2)).findNextByItems(anyCollection(), any(), any());
+    }
+
+    @Test
+    void disabledCalendarReadsDatabaseEveryTime() {
+        bookingCalendar = new BookingCalendar(bookingRepository, 100, Duration.ofMinutes(1), false);
+
+        assertThat(bookingCalendar.find(item.getId(), now).findLast(now).orElseThrow().getId(), equalTo(1L));
+        bookingCalendar.find(item.getId(), now);
+        bookingCalendar.findAll(List.of(item.getId()), now);
+        bookingCalendar.save(createBooking(2L, now.minusDays(1), BookingStatus.APPROVED));
+        bookingCalendar.findAll(List.of(item.getId()), now);
+
+        verify(bookingRepository, times(2)).findNextByItem(
+                anyLong(), any(), any(), any());
+        verify(bookingRepository, times(2)).findNextByItems(anyCollection(), any(), any());
+    }
+
+    private Booking createBooking(Long id, LocalDateTime start, BookingStatus status) {
+        var booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(12));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.bookingTest;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConflictTest {
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 1000;
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private User booker;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    public void createEnvironment() {
+        booker = new User();
+        booker.setName("Серж");
+        booker.setEmail("conflict.booker@mail.ru");
+        userRepository.save(booker);
+        owner = new User();
+        owner.setName("Женя");
+        owner.setEmail("conflict.owner@mail.ru");
+        userRepository.save(owner);
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Новая");
+        item.setIsAvailable(Boolean.TRUE);
+        item.setOwner(owner);
+        itemRepository.save(item);
+    }
+
+    @AfterEach
+    public void cleanEnvironment() {
+        bookingRepository.deleteAll(bookingRepository.findByItem_IdAndStatusIs(item.getId(), BookingStatus.WAITING));
+        bookingRepository.deleteAll(bookingRepository.findByItem_IdAndStatusIs(item.getId(), BookingStatus.APPROVED));
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void concurrentOverlappingBookingsAcceptOnlyOne() throws Exception {
+        final LocalDateTime start = LocalDateTime.now().plusDays(10);
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch ready = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            final LocalDateTime from = start.plusHours(i % 24);
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.create(new BookingRequestDto(item.getId(), from, from.plusDays(2)), booker.getId());
+                    created.incrementAndGet();
+                } catch (NotFoundException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+
+        final List<Booking> bookings = bookingRepository.findByItem_IdAndStatusIs(item.getId(), BookingStatus.WAITING);
+        assertThat(created.get(), equalTo(1));
+        assertThat(rejected.get(), equalTo(REQUESTS - 1));
+        assertThat(bookings.size(), equalTo(1));
+    }
+
+    @Test
+    void concurrentApprovalsApplyOnce() throws Exception {
+        final LocalDateTime start = LocalDateTime.now().plusDays(10);
+        final Long bookingId = bookingService.create(new BookingRequestDto(item.getId(), start, start.plusDays(1)),
+                booker.getId()).getId();
+        final AtomicInteger approved = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch ready = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.update(bookingId, owner.getId(), true);
+                    approved.incrementAndGet();
+                } catch (NotFoundException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+
+        assertThat(approved.get(), equalTo(1));
+        assertThat(rejected.get(), equalTo(THREADS * 4 - 1));
+        assertThat(bookingRepository.findByItem_IdAndStatusIs(item.getId(), BookingStatus.APPROVED).size(), equalTo(1));
+    }
+
+    @Test
+    void adjacentBookingsDoNotConflict() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.create(new BookingRequestDto(item.getId(), start, start.plusDays(1)), booker.getId());
+        bookingService.create(new BookingRequestDto(item.getId(), start.plusDays(1), start.plusDays(2)), booker.getId());
+
+        assertThat(bookingRepository.findByItem_IdAndStatusIs(item.getId(), BookingStatus.WAITING).size(), equalTo(2));
+    }
+}
@@ -9,18 +9,22 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Optional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
@@ -31,6 +35,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.util.Cursor;
 
 
 @WebMvcTest(BookingController.class)
@@ -115,6 +120,22 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).findById(userId, bookingDto.getId());
     }
 
+    @Test
+    void getBookingNotModified() throws Exception {
+        final String eTag = "W/\"booking-1-2-0\"";
+        when(bookingService.findETag(userId, bookingDto.getId()))
+                .thenReturn(Optional.of(eTag));
+
+        mvc.perform(get("/bookings/" + bookingDto.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", eTag)
+                        .accept(MediaType.ALL))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag));
+        verify(bookingService, times(0)).findById(userId, bookingDto.getId());
+    }
+
     @Test
     void getBookingsByBooker() throws Exception {
         var state = "FUTURE";
@@ -159,6 +180,38 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).findAllByOwner(userId, state, page);
     }
 
+    @Test
+    void getBookingsByBookerAfterCursor() throws Exception {
+        var state = "ALL";
+        var after = new Cursor(LocalDateTime.of(2030, 1, 1, 12, 0), 5L);
+
+        when(bookingService.findAllByBooker(userId, state, after, size))
+                .thenReturn(Collections.emptyList());
+
+        mvc.perform(get("/bookings")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("state", state)
+                        .param("size", String.valueOf(size))
+                        .param("after", "2030-01-01T12:00:00,5")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+        verify(bookingService, times(1)).findAllByBooker(userId, state, after, size);
+    }
+
+    @Test
+    void shouldReturnFailOnMalformedCursor() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("after", "5")
+                        .accept(MediaType.ALL))
+                .andExpect(status().is4xxClientError());
+    }
+
     @Test
     void shouldReturnFailOnUnknownStatus() throws Exception {
         var state = "NEVER";
@@ -180,5 +233,37 @@ public class BookingControllerTest {
                 .andExpect(content().json("{\"error\":\"Unknown state: " + state + "\"}"));
         verify(bookingService, times(1)).findAllByBooker(userId, state, page);
     }
-}
 
+    @Test
+    void shouldReturnBadRequestOnOverlapConstraintViolation() throws Exception {
+        when(bookingService.create(any(), anyLong()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("ERROR: conflicting key value violates exclusion constraint " +
+                                "\"ex_bookings_item_period\"", "23P01")));
+
+        mvc.perform(post("/bookings")
+                        .content(mapper.writeValueAsString(bookingRequestDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.ALL))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"Item уже забронирован на выбранный период.\"}"));
+    }
+
+    @Test
+    void shouldReturnServerErrorOnOtherConstraintViolation() throws Exception {
+        when(bookingService.create(any(), anyLong()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("ERROR: insert or update on table \"bookings\" violates foreign key " +
+                                "constraint \"bookings_item_id_fkey\"", "23503")));
+
+        mvc.perform(post("/bookings")
+                        .content(mapper.writeValueAsString(bookingRequestDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.ALL))
+                .andExpect(status().isInternalServerError());
+    }
+}
@@ -0,0 +1,284 @@
+package ru.practicum.shareit.bookingTest;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.lock.AdvisoryItemLock;
+import ru.practicum.shareit.booking.lock.ItemLock;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+@SpringBootTest(
+        properties = "shareit-server.item-lock.mode=advisory",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingPostgresTest {
+    private static final int THREADS = 16;
+    private final BookingService bookingService;
+    private final ItemLock itemLock;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private User booker;
+    private User owner;
+    private Item item;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> System.getenv("SHAREIT_TEST_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> Optional.ofNullable(System.getenv("SHAREIT_TEST_POSTGRES_USER"))
+                .orElse("root"));
+        registry.add("spring.datasource.password", () -> Optional.ofNullable(System.getenv("SHAREIT_TEST_POSTGRES_PASSWORD"))
+                .orElse("root"));
+    }
+
+    @BeforeEach
+    public void createEnvironment() {
+        booker = new User();
+        booker.setName("Серж");
+        booker.setEmail("postgres.booker@mail.ru");
+        userRepository.save(booker);
+        owner = new User();
+        owner.setName("Женя");
+        owner.setEmail("postgres.owner@mail.ru");
+        userRepository.save(owner);
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Новая");
+        item.setIsAvailable(Boolean.TRUE);
+        item.setOwner(owner);
+        itemRepository.save(item);
+    }
+
+    @AfterEach
+    public void cleanEnvironment() {
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void exclusionConstraintRejectsOverlappingBookings() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(10);
+        bookingRepository.saveAndFlush(createBooking(start, start.plusDays(2), BookingStatus.WAITING));
+
+        final DataIntegrityViolationException e = Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> bookingRepository.saveAndFlush(createBooking(start.plusDays(1), start.plusDays(3),
+                        BookingStatus.APPROVED)));
+        assertThat(NestedExceptionUtils.getMostSpecificCause(e).getMessage(), containsString("ex_bookings_item_period"));
+    }
+
+    @Test
+    void exclusionConstraintIgnoresRejectedAndAdjacentBookings() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(10);
+        bookingRepository.saveAndFlush(createBooking(start, start.plusDays(2), BookingStatus.APPROVED));
+        bookingRepository.saveAndFlush(createBooking(start, start.plusDays(2), BookingStatus.REJECTED));
+        bookingRepository.saveAndFlush(createBooking(start.plusDays(2), start.plusDays(3), BookingStatus.WAITING));
+    }
+
+    @Test
+    void advisoryLockIsUsed() {
+        assertThat(itemLock, instanceOf(AdvisoryItemLock.class));
+    }
+
+    @Test
+    void advisoryLockBlocksSameItemUntilCommit() throws Exception {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                itemLock.lock(item.getId());
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            locked.await();
+            final Future<?> waiter = executor.submit(() ->
+                    transactionTemplate.executeWithoutResult(status -> itemLock.lock(item.getId())));
+            transactionTemplate.executeWithoutResult(status -> itemLock.lock(item.getId() + 1));
+
+            Assertions.assertThrows(TimeoutException.class, () -> waiter.get(500, TimeUnit.MILLISECONDS));
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            waiter.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentOverlappingBookingsAcceptOnlyOne() throws Exception {
+        final LocalDateTime start = LocalDateTime.now().plusDays(10);
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch ready = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS * 8; i++) {
+            final LocalDateTime from = start.plusHours(i % 24);
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.create(new BookingRequestDto(item.getId(), from, from.plusDays(2)), booker.getId());
+                    created.incrementAndGet();
+                } catch (NotFoundException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+
+        assertThat(created.get(), equalTo(1));
+        assertThat(rejected.get(), equalTo(THREADS * 8 - 1));
+        assertThat(bookingRepository.findByItem_IdAndStatusIs(item.getId(), BookingStatus.WAITING).size(), equalTo(1));
+    }
+
+    @Test
+    void concurrentApprovalsApplyOnce() throws Exception {
+        final LocalDateTime start = LocalDateTime.now().plusDays(10);
+        final Long bookingId = bookingService.create(new BookingRequestDto(item.getId(), start, start.plusDays(1)),
+                booker.getId()).getId();
+        final AtomicInteger approved = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch ready = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.update(bookingId, owner.getId(), true);
+                    approved.incrementAndGet();
+                } catch (NotFoundException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+
+        assertThat(approved.get(), equalTo(1));
+        assertThat(rejected.get(), equalTo(THREADS * 4 - 1));
+        assertThat(bookingRepository.findByItem_IdAndStatusIs(item.getId(), BookingStatus.APPROVED).size(), equalTo(1));
+    }
+
+    @Test
+    void rawInsertsDoNotReuseHibernateIds() {
+        final Long rawId = jdbcTemplate.queryForObject(
+                "insert into users (name, email) values ('Серж', 'postgres.raw@mail.ru') returning id", Long.class);
+        try {
+            final List<User> users = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                final User user = new User();
+                user.setName("Серж");
+                user.setEmail("postgres.pooled" + i + "@mail.ru");
+                users.add(user);
+            }
+            userRepository.saveAll(users);
+            users.forEach(user -> userRepository.deleteById(user.getId()));
+
+            assertThat(users.stream().map(User::getId).anyMatch(rawId::equals), equalTo(false));
+        } finally {
+            userRepository.deleteById(rawId);
+        }
+    }
+
+    @Test
+    void overlapMigrationRejectsLaterAndWaitingBookings() throws Exception {
+        final String migration = StreamUtils.copyToString(
+                new ClassPathResource("db/migration/postgresql/V5_1__reject_overlapping_bookings.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        final LocalDateTime start = LocalDateTime.now().plusDays(10);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("alter table bookings drop constraint ex_bookings_item_period");
+            final Long approved = insertBooking(start.plusDays(1), start.plusDays(3), BookingStatus.APPROVED);
+            final Long earlierWaiting = insertBooking(start, start.plusDays(2), BookingStatus.WAITING);
+            final Long adjacent = insertBooking(start.plusDays(3), start.plusDays(4), BookingStatus.WAITING);
+            final Long laterWaiting = insertBooking(start.plusDays(3).plusHours(12), start.plusDays(5),
+                    BookingStatus.WAITING);
+            final Long rejected = insertBooking(start, start.plusDays(5), BookingStatus.REJECTED);
+
+            jdbcTemplate.execute(migration);
+
+            assertThat(findStatus(approved), equalTo("APPROVED"));
+            assertThat(findStatus(earlierWaiting), equalTo("REJECTED"));
+            assertThat(findStatus(adjacent), equalTo("WAITING"));
+            assertThat(findStatus(laterWaiting), equalTo("REJECTED"));
+            assertThat(findStatus(rejected), equalTo("REJECTED"));
+            jdbcTemplate.execute("alter table bookings add constraint ex_bookings_item_period "
+                    + "exclude using gist (item_id with =, tsrange(start_date, end_date) with &&) "
+                    + "where (status in ('WAITING', 'APPROVED'))");
+            status.setRollbackOnly();
+        });
+    }
+
+    private Long insertBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return jdbcTemplate.queryForObject("insert into bookings (start_date, end_date, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?) returning id", Long.class, start, end, item.getId(), booker.getId(), status.name());
+    }
+
+    private String findStatus(Long bookingId) {
+        return jdbcTemplate.queryForObject("select status from bookings where id = ?", String.class, bookingId);
+    }
+
+    private Booking createBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        final Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -16,6 +16,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -86,6 +87,10 @@ public class BookingRepositoryTest {
 
         assertThat(result, notNullValue());
         assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(booking.getId()));
+        assertThat(result.get(0).getItem().getName(), equalTo(item.getName()));
+        assertThat(result.get(0).getBooker().getName(), equalTo(user.getName()));
+        assertThat(result.get(0).getStatus(), equalTo(BookingStatus.WAITING));
     }
 
     @Test
@@ -101,9 +106,9 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void verifyFindAllByItem_IdIn() {
-        var itemId = item.getId();
-        var result = bookingRepository.findAllByItem_IdIn(List.of(itemId), page)
+    void verifyFindAllByItem_Owner_Id() {
+        var ownerId = user.getId();
+        var result = bookingRepository.findAllByItem_Owner_Id(ownerId, page)
                 .stream()
                 .collect(Collectors.toList());
 
@@ -112,10 +117,10 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void verifyFindByItem_IdInAndStartIsBeforeAndEndIsAfter() {
-        var itemId = item.getId();
+    void verifyFindByItem_Owner_IdAndStartIsBeforeAndEndIsAfter() {
+        var ownerId = user.getId();
         var date = LocalDateTime.now();
-        var result = bookingRepository.findByItem_IdInAndStartIsBeforeAndEndIsAfter(List.of(itemId), date, date, page)
+        var result = bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(ownerId, date, date, page)
                 .stream()
                 .collect(Collectors.toList());
 
@@ -124,10 +129,10 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void verifyFindByItem_IdInAndEndIsBefore() {
-        var itemId = item.getId();
+    void verifyFindByItem_Owner_IdAndEndIsBefore() {
+        var ownerId = user.getId();
         var date = LocalDateTime.now();
-        var result = bookingRepository.findByItem_IdInAndEndIsBefore(List.of(itemId), date, page)
+        var result = bookingRepository.findByItem_Owner_IdAndEndIsBefore(ownerId, date, page)
                 .stream()
                 .collect(Collectors.toList());
 
@@ -136,11 +141,11 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void verifyFindByItem_IdInAndStartIsAfterAndStatusIs() {
-        var itemId = item.getId();
+    void verifyFindByItem_Owner_IdAndStartIsAfterAndStatusIs() {
+        var ownerId = user.getId();
         var date = LocalDateTime.now();
         var status = BookingStatus.WAITING;
-        var result = bookingRepository.findByItem_IdInAndStartIsAfterAndStatusIs(List.of(itemId), date, status, page)
+        var result = bookingRepository.findByItem_Owner_IdAndStartIsAfterAndStatusIs(ownerId, date, status, page)
                 .stream()
                 .collect(Collectors.toList());
 
@@ -181,6 +186,42 @@ public class BookingRepositoryTest {
         assertThat(result.size(), equalTo(1));
     }
 
+    @Test
+    void verifyFindLastByItem() {
+        var itemId = item.getId();
+        var status = BookingStatus.WAITING;
+        var past = new Booking();
+        past.setStart(LocalDateTime.now().minusDays(3));
+        past.setEnd(LocalDateTime.now().minusDays(2));
+        past.setItem(item);
+        past.setBooker(user);
+        past.setStatus(status);
+        bookingRepository.save(past);
+        var result = bookingRepository.findLastByItem(itemId, List.of(status), LocalDateTime.now(),
+                PageRequest.of(0, 1));
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(past.getId()));
+    }
+
+    @Test
+    void verifyFindNextByItem() {
+        var itemId = item.getId();
+        var status = BookingStatus.WAITING;
+        var later = new Booking();
+        later.setStart(LocalDateTime.now().plusDays(5));
+        later.setEnd(LocalDateTime.now().plusDays(6));
+        later.setItem(item);
+        later.setBooker(user);
+        later.setStatus(status);
+        bookingRepository.save(later);
+        var result = bookingRepository.findNextByItem(itemId, List.of(status), LocalDateTime.now(),
+                PageRequest.of(0, 1));
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(booking.getId()));
+    }
+
     @Test
     void verifyFindByItem_IdAndEndIsBefore() {
         var itemId = item.getId();
@@ -200,4 +241,123 @@ public class BookingRepositoryTest {
         assertThat(result, notNullValue());
         assertThat(result.get().getStatus(), equalTo(BookingStatus.WAITING));
     }
+
+    @Test
+    void verifyFindAllByBookerAfter() {
+        var userId = user.getId();
+        var start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        var first = createBooking(start);
+        var second = createBooking(start);
+        var result = bookingRepository.findAllByBookerAfter(userId, start, second.getId(), PageRequest.of(0, 1));
+
+        assertThat(result.getContent().size(), equalTo(1));
+        assertThat(result.getContent().get(0).getId(), equalTo(first.getId()));
+        assertThat(result.hasNext(), equalTo(true));
+
+        result = bookingRepository.findAllByBookerAfter(userId, start, first.getId(), PageRequest.of(0, 1));
+
+        assertThat(result.getContent().size(), equalTo(1));
+        assertThat(result.getContent().get(0).getId(), equalTo(booking.getId()));
+        assertThat(result.hasNext(), equalTo(false));
+    }
+
+    @Test
+    void verifyFindFutureByOwnerAndStatusAfter() {
+        var ownerId = user.getId();
+        var start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        createBooking(start);
+        var result = bookingRepository.findFutureByOwnerAndStatusAfter(ownerId, LocalDateTime.now(),
+                BookingStatus.WAITING, start, Long.MAX_VALUE, page);
+
+        assertThat(result.getContent().size(), equalTo(2));
+        assertThat(result.getContent().get(1).getId(), equalTo(booking.getId()));
+    }
+
+    private Booking createBooking(LocalDateTime start) {
+        Booking next = new Booking();
+        next.setStart(start);
+        next.setEnd(start.plusDays(1));
+        next.setItem(item);
+        next.setBooker(user);
+        next.setStatus(BookingStatus.WAITING);
+        return bookingRepository.save(next);
+    }
+
+    @Test
+    void verifyFindVersionForViewer() {
+        var stranger = new User();
+        stranger.setName("Женя");
+        stranger.setEmail("54321@mail.ru");
+        userRepository.save(stranger);
+        em.flush();
+
+        var result = bookingRepository.findVersionForViewer(booking.getId(), user.getId());
+
+        assertThat(result.isPresent(), equalTo(true));
+        assertThat(result.get().getVersion(), equalTo(0L));
+        assertThat(result.get().getItemVersion(), equalTo(0L));
+        assertThat(bookingRepository.findVersionForViewer(booking.getId(), stranger.getId()).isEmpty(), equalTo(true));
+
+        bookingRepository.incrementVersionByBooker(user.getId());
+        em.clear();
+
+        assertThat(bookingRepository.findVersionForViewer(booking.getId(), user.getId()).get().getVersion(), equalTo(1L));
+    }
+
+    @Test
+    void verifyFindLastAndNextByItems() {
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        var otherItem = new Item();
+        otherItem.setName("Пила");
+        otherItem.setDescription("Старая");
+        otherItem.setIsAvailable(Boolean.TRUE);
+        otherItem.setOwner(user);
+        itemRepository.save(otherItem);
+        var past = createBooking(item, now.minusDays(5), BookingStatus.APPROVED);
+        var last = createBooking(item, now.minusDays(2), BookingStatus.APPROVED);
+        createBooking(item, now.minusDays(1), BookingStatus.REJECTED);
+        var next = createBooking(item, now.plusDays(4), BookingStatus.APPROVED);
+        createBooking(item, now.plusDays(8), BookingStatus.APPROVED);
+        var otherNext = createBooking(otherItem, now.plusDays(2), BookingStatus.APPROVED);
+        var itemIds = List.of(item.getId(), otherItem.getId());
+
+        var lastBookings = bookingRepository.findLastByItems(itemIds, BookingStatus.APPROVED, now);
+        var nextBookings = bookingRepository.findNextByItems(itemIds, BookingStatus.APPROVED, now);
+
+        assertThat(lastBookings.stream().map(Booking::getId).collect(Collectors.toList()), equalTo(List.of(last.getId())));
+        assertThat(nextBookings.stream().map(Booking::getId).sorted().collect(Collectors.toList()),
+                equalTo(List.of(next.getId(), otherNext.getId())));
+        assertThat(bookingRepository.findLastByItems(itemIds, BookingStatus.APPROVED, last.getStart())
+                .get(0).getId(), equalTo(past.getId()));
+    }
+
+    private Booking createBooking(Item item, LocalDateTime start, BookingStatus status) {
+        var booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(12));
+        booking.setItem(item);
+        booking.setBooker(user);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+
+    @Test
+    void verifyFindLastActiveStartingBefore() {
+        var later = new Booking();
+        later.setStart(LocalDateTime.now().plusDays(5));
+        later.setEnd(LocalDateTime.now().plusDays(6));
+        later.setItem(item);
+        later.setBooker(user);
+        later.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(later);
+        var statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        var result = bookingRepository.findLastByItem(item.getId(), statuses, LocalDateTime.now().plusDays(10),
+                PageRequest.of(0, 1));
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(booking.getId()));
+        assertThat(bookingRepository.findLastByItem(item.getId(), statuses, LocalDateTime.now(),
+                PageRequest.of(0, 1)).isEmpty(), equalTo(true));
+    }
 }
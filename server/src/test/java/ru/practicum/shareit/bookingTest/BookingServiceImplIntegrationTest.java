@@ -7,8 +7,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.lock.ItemLock;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
@@ -16,6 +18,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.OptimisticRetry;
 
 import java.time.LocalDateTime;
 
@@ -36,6 +39,12 @@ public class BookingServiceImplIntegrationTest {
 
     private final BookingRepository bookingRepository;
 
+    private final BookingCalendar bookingCalendar;
+
+    private final ItemLock itemLock;
+
+    private final OptimisticRetry optimisticRetry;
+
     private BookingService bookingService;
     private User user;
     private User owner;
@@ -43,7 +52,8 @@ public class BookingServiceImplIntegrationTest {
 
     @BeforeEach
     public void createEnvironment() {
-        bookingService = new BookingServiceImpl(itemRepository, userRepository, bookingRepository);
+        bookingService = new BookingServiceImpl(itemRepository, userRepository, bookingRepository, bookingCalendar, itemLock,
+                optimisticRetry);
         user = new User();
         user.setName("Серж");
         user.setEmail("12345@mail.ru");
@@ -10,24 +10,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.lock.ItemLock;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.NotFoundExceptionEntity;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.OptimisticRetry;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -43,21 +51,33 @@ public class BookingServiceImplTest {
     @Mock
     private final BookingRepository bookingRepository;
 
+    @Mock
+    private final ItemLock itemLock;
+
     private BookingService bookingService;
     private User user;
 
     @BeforeEach
     public void createEnvironment() {
-        bookingService = new BookingServiceImpl(itemRepository, userRepository, bookingRepository);
+        bookingService = new BookingServiceImpl(itemRepository, userRepository, bookingRepository,
+                new BookingCalendar(bookingRepository, 100, Duration.ofMinutes(1), true), itemLock,
+                new OptimisticRetry(mock(PlatformTransactionManager.class), 3, Duration.ZERO));
         user = new User();
         user.setId(1L);
         user.setName("Серж");
         user.setEmail("12345@mail.ru");
 
         when(bookingRepository.save(any()))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.findById(user.getId()))
-                .thenReturn(Optional.of(user));
+                .thenAnswer(invocation -> {
+                    Booking booking = invocation.getArgument(0);
+                    if (booking.getId() == null)
+                        booking.setId(1L);
+                    return booking;
+                });
+        when(userRepository.existsById(user.getId()))
+                .thenReturn(true);
+        when(userRepository.getReferenceById(user.getId()))
+                .thenReturn(user);
     }
 
     @Test
@@ -70,7 +90,7 @@ public class BookingServiceImplTest {
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
         verify(bookingRepository, times(1)).findAllByBooker_Id(any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
@@ -83,7 +103,7 @@ public class BookingServiceImplTest {
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
         verify(bookingRepository, times(1)).findByBooker_IdAndEndIsBefore(any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
@@ -96,7 +116,7 @@ public class BookingServiceImplTest {
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
         verify(bookingRepository, times(1)).findByBooker_IdAndStartIsAfter(any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
@@ -109,7 +129,7 @@ public class BookingServiceImplTest {
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
         verify(bookingRepository, times(1)).findByBooker_IdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
@@ -122,7 +142,7 @@ public class BookingServiceImplTest {
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
         verify(bookingRepository, times(1)).findByBooker_IdAndStartIsAfterAndStatusIs(any(), any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
@@ -135,85 +155,85 @@ public class BookingServiceImplTest {
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
         verify(bookingRepository, times(1)).findByBooker_IdAndStartIsAfterAndStatusIs(any(), any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getAllOwnerBookings() {
-        when(bookingRepository.findAllByItem_IdIn(any(), any()))
+        when(bookingRepository.findAllByItem_Owner_Id(any(), any()))
                 .thenReturn(Page.empty());
 
         var result = bookingService.findAllByOwner(1L, "ALL", PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
-        verify(bookingRepository, times(1)).findAllByItem_IdIn(any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(bookingRepository, times(1)).findAllByItem_Owner_Id(any(), any());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getPastOwnerBookings() {
-        when(bookingRepository.findByItem_IdInAndEndIsBefore(any(), any(), any()))
+        when(bookingRepository.findByItem_Owner_IdAndEndIsBefore(any(), any(), any()))
                 .thenReturn(Page.empty());
 
         var result = bookingService.findAllByOwner(1L, "PAST", PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_IdInAndEndIsBefore(any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(bookingRepository, times(1)).findByItem_Owner_IdAndEndIsBefore(any(), any(), any());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getFutureOwnerBookings() {
-        when(bookingRepository.findByItem_IdInAndStartIsAfter(any(), any(), any()))
+        when(bookingRepository.findByItem_Owner_IdAndStartIsAfter(any(), any(), any()))
                 .thenReturn(Page.empty());
 
         var result = bookingService.findAllByOwner(1L, "FUTURE", PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_IdInAndStartIsAfter(any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(bookingRepository, times(1)).findByItem_Owner_IdAndStartIsAfter(any(), any(), any());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getCurrentOwnerBookings() {
-        when(bookingRepository.findByItem_IdInAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any()))
+        when(bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any()))
                 .thenReturn(Page.empty());
 
         var result = bookingService.findAllByOwner(1L, "CURRENT", PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_IdInAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(bookingRepository, times(1)).findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getWaitingOwnerBookings() {
-        when(bookingRepository.findByItem_IdInAndStartIsAfterAndStatusIs(any(), any(), any(), any()))
+        when(bookingRepository.findByItem_Owner_IdAndStartIsAfterAndStatusIs(any(), any(), any(), any()))
                 .thenReturn(Page.empty());
 
         var result = bookingService.findAllByOwner(1L, "WAITING", PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_IdInAndStartIsAfterAndStatusIs(any(), any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(bookingRepository, times(1)).findByItem_Owner_IdAndStartIsAfterAndStatusIs(any(), any(), any(), any());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getRejectedOwnerBookings() {
-        when(bookingRepository.findByItem_IdInAndStartIsAfterAndStatusIs(any(), any(), any(), any()))
+        when(bookingRepository.findByItem_Owner_IdAndStartIsAfterAndStatusIs(any(), any(), any(), any()))
                 .thenReturn(Page.empty());
 
         var result = bookingService.findAllByOwner(1L, "REJECTED", PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_IdInAndStartIsAfterAndStatusIs(any(), any(), any(), any());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(bookingRepository, times(1)).findByItem_Owner_IdAndStartIsAfterAndStatusIs(any(), any(), any(), any());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
@@ -222,8 +242,10 @@ public class BookingServiceImplTest {
         var user = new User();
         user.setId(2L);
 
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId))
+                .thenReturn(true);
+        when(userRepository.getReferenceById(userId))
+                .thenReturn(user);
 
         var bookingRequestDto = new BookingRequestDto(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
 
@@ -238,10 +260,40 @@ public class BookingServiceImplTest {
         var result = bookingService.create(bookingRequestDto, userId);
 
         assertThat(result, notNullValue());
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).existsById(userId);
         verify(itemRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void saveOverlappingBooking() {
+        var userId = 1L;
+        var owner = new User();
+        owner.setId(2L);
+        var bookingRequestDto = new BookingRequestDto(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(3));
+        Item item = new Item();
+        item.setId(1L);
+        item.setOwner(owner);
+        item.setIsAvailable(true);
+        var booker = new User();
+        booker.setId(3L);
+        Booking existing = new Booking();
+        existing.setId(1L);
+        existing.setStart(LocalDateTime.now());
+        existing.setEnd(LocalDateTime.now().plusDays(2));
+        existing.setItem(item);
+        existing.setBooker(booker);
+        existing.setStatus(BookingStatus.APPROVED);
+
+        when(itemRepository.findById(bookingRequestDto.getItemId()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findLastByItem(eq(1L), any(),
+                eq(bookingRequestDto.getEnd()), any()))
+                .thenReturn(List.of(existing));
+
+        Assertions.assertThrows(NotFoundException.class, () -> bookingService.create(bookingRequestDto, userId));
+        verify(bookingRepository, times(0)).save(any());
+    }
+
     @Test
     void getBooking() {
         var bookingId = 2L;
@@ -249,7 +301,7 @@ public class BookingServiceImplTest {
         when(bookingRepository.findById(bookingId))
                 .thenReturn(Optional.empty());
 
-        verify(userRepository, times(0)).findById(user.getId());
+        verify(userRepository, times(0)).existsById(user.getId());
         verify(bookingRepository, times(0)).findById(bookingId);
         Assertions.assertThrows(NotFoundExceptionEntity.class, () -> bookingService.findById(user.getId(), bookingId));
     }
@@ -269,6 +321,8 @@ public class BookingServiceImplTest {
         booking.setBooker(user);
         booking.setItem(item);
 
+        when(bookingRepository.findItemIdById(bookingId))
+                .thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findByIdAndItemOwnerId(bookingId, user.getId()))
                 .thenReturn(Optional.of(booking));
 
@@ -276,8 +330,9 @@ public class BookingServiceImplTest {
 
         assertThat(result, notNullValue());
         assertThat(result.getStatus(), equalTo(BookingStatus.APPROVED));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verify(bookingRepository, times(1)).findByIdAndItemOwnerId(bookingId, user.getId());
+        verify(itemLock, times(1)).lock(item.getId());
     }
 
     @Test
@@ -295,6 +350,8 @@ public class BookingServiceImplTest {
         booking.setBooker(user);
         booking.setItem(item);
 
+        when(bookingRepository.findItemIdById(bookingId))
+                .thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findByIdAndItemOwnerId(bookingId, user.getId()))
                 .thenReturn(Optional.of(booking));
 
@@ -302,7 +359,8 @@ public class BookingServiceImplTest {
 
         assertThat(result, notNullValue());
         assertThat(result.getStatus(), equalTo(BookingStatus.REJECTED));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verify(bookingRepository, times(1)).findByIdAndItemOwnerId(bookingId, user.getId());
+        verify(itemLock, times(1)).lock(item.getId());
     }
 }
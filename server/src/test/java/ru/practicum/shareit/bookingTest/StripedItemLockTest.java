@@ -0,0 +1,77 @@
+package ru.practicum.shareit.bookingTest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.lock.StripedItemLock;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class StripedItemLockTest {
+    private StripedItemLock itemLock;
+
+    @BeforeEach
+    public void createEnvironment() {
+        itemLock = new StripedItemLock(16, Duration.ofMillis(100));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void cleanEnvironment() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            complete();
+    }
+
+    @Test
+    void sameItemWaitsUntilCompletion() throws Exception {
+        itemLock.lock(1L);
+
+        final ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> inOtherTransaction(1L).get());
+        assertThat(e.getCause() instanceof CannotAcquireLockException, equalTo(true));
+
+        complete();
+        assertThat(inOtherTransaction(1L).get(1, TimeUnit.SECONDS), equalTo(true));
+    }
+
+    @Test
+    void otherItemsProceedInParallel() throws Exception {
+        itemLock.lock(1L);
+
+        assertThat(inOtherTransaction(2L).get(1, TimeUnit.SECONDS), equalTo(true));
+    }
+
+    @Test
+    void lockRequiresTransaction() {
+        complete();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> itemLock.lock(1L));
+    }
+
+    private CompletableFuture<Boolean> inOtherTransaction(Long itemId) {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                itemLock.lock(itemId);
+                return true;
+            } finally {
+                complete();
+            }
+        });
+    }
+
+    private static void complete() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -63,4 +64,13 @@ public class CommentRepositoryTest {
         assertThat(result, notNullValue());
         assertThat(result.size(), equalTo(1));
     }
+
+    @Test
+    void verifyFindAllByItemIdIn() {
+        var result = commentRepository.findAllByItemIdIn(List.of(item.getId()));
+
+        assertThat(result, notNullValue());
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getItem().getId(), equalTo(item.getId()));
+    }
 }
@@ -15,9 +15,11 @@ import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.CountedPage;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -118,6 +120,32 @@ public class ItemControllerTest {
         verify(itemService, times(1)).findById(anyLong(), anyLong());
     }
 
+    @Test
+    void getItemWithETag() throws Exception {
+        final String eTag = "W/\"item-1-3\"";
+        when(itemService.findETag(anyLong(), anyLong()))
+                .thenReturn(Optional.of(eTag));
+        when(itemService.findById(anyLong(), anyLong()))
+                .thenReturn(itemResponseDto);
+
+        mvc.perform(get("/items/" + itemDto.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.id").value(itemResponseDto.getId()));
+
+        mvc.perform(get("/items/" + itemDto.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", eTag)
+                        .accept(MediaType.ALL))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(itemService, times(1)).findById(anyLong(), anyLong());
+    }
+
     @Test
     void getAllItems() throws Exception {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
@@ -138,6 +166,29 @@ public class ItemControllerTest {
         verify(itemService, times(1)).findAll(userId, page);
     }
 
+    @Test
+    void getAllItemsWithTotalCount() throws Exception {
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        final var page = PageRequest.of(from > 0 ? from / size : 0, size, sort);
+
+        when(itemService.findAllWithTotal(userId, page))
+                .thenReturn(new CountedPage<>(Collections.emptyList(), 3L));
+
+        mvc.perform(get("/items")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("X-Total-Count", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("from", String.valueOf(from))
+                        .param("size", String.valueOf(size))
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(content().json("[]"));
+        verify(itemService, times(1)).findAllWithTotal(userId, page);
+        verify(itemService, times(0)).findAll(userId, page);
+    }
+
     @Test
     void searchItems() throws Exception {
         var text = "Дрель";
@@ -159,6 +210,30 @@ public class ItemControllerTest {
         verify(itemService, times(1)).searchItems(userId, text, page);
     }
 
+    @Test
+    void searchItemsWithTotalCount() throws Exception {
+        var text = "Дрель";
+        final var page = PageRequest.of(from > 0 ? from / size : 0, size);
+
+        when(itemService.searchItemsWithTotal(userId, text, page))
+                .thenReturn(new CountedPage<>(Collections.emptyList(), 5L));
+
+        mvc.perform(get("/items/search")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("X-Total-Count", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("text", text)
+                        .param("from", String.valueOf(from))
+                        .param("size", String.valueOf(size))
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "5"))
+                .andExpect(content().json("[]"));
+        verify(itemService, times(1)).searchItemsWithTotal(userId, text, page);
+        verify(itemService, times(0)).searchItems(userId, text, page);
+    }
+
     @Test
     void createComment() throws Exception {
         var itemId = 1L;
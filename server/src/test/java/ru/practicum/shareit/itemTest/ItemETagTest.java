@@ -0,0 +1,90 @@
+package ru.practicum.shareit.itemTest;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemETagTest {
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private User booker;
+    private User owner;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    public void createEnvironment() {
+        booker = new User();
+        booker.setName("Серж");
+        booker.setEmail("etag.booker@mail.ru");
+        userRepository.save(booker);
+        owner = new User();
+        owner.setName("Женя");
+        owner.setEmail("etag.owner@mail.ru");
+        userRepository.save(owner);
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Новая");
+        item.setIsAvailable(Boolean.TRUE);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        booking = new Booking();
+        booking.setStart(LocalDateTime.now().minusDays(4));
+        booking.setEnd(LocalDateTime.now().minusDays(2));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+    }
+
+    @AfterEach
+    public void cleanEnvironment() {
+        commentRepository.deleteAll(commentRepository.findAllByItemIdIn(List.of(item.getId())));
+        bookingRepository.deleteById(booking.getId());
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void ownerHasNoVersionETag() {
+        assertThat(itemService.findETag(item.getId(), owner.getId()), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void commentChangesETag() {
+        final String before = itemService.findETag(item.getId(), booker.getId()).orElseThrow();
+        final CommentDto commentDto = new CommentDto();
+        commentDto.setText("Отл");
+
+        itemService.createComment(booker.getId(), commentDto, item.getId());
+
+        assertThat(itemService.findETag(item.getId(), booker.getId()).orElseThrow(), not(equalTo(before)));
+    }
+}
@@ -41,13 +41,15 @@ public class ItemRepositoryTest {
     private CommentRepository commentRepository;
     @Autowired
     private ItemRequestRepository itemRequestRepository;
+    private User user;
     private User owner;
+    private Item item;
     private ItemRequest itemRequest;
     final PageRequest page = PageRequest.of(0, 10);
 
     @BeforeEach
     public void createEnvironment() {
-        User user = new User();
+        user = new User();
         user.setName("Серж");
         user.setEmail("12345.@mail.ru");
         owner = new User();
@@ -60,7 +62,7 @@ public class ItemRepositoryTest {
         itemRequest.setCreated(LocalDateTime.now());
         itemRequest.setDescription("Новая дрель");
         itemRequestRepository.save(itemRequest);
-        Item item = new Item();
+        item = new Item();
         item.setName("Дрель");
         item.setDescription("Новая");
         item.setIsAvailable(Boolean.TRUE);
@@ -99,10 +101,23 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    void verifyFindAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue() {
-        var text = "Дрель";
-        var result = itemRepository.findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(
-                        text, text, page)
+    void verifyFindAllByOwnerIdAndIdGreaterThan() {
+        var ownerId = owner.getId();
+        var itemId = itemRepository.findAllByOwnerId(ownerId, page).getContent().get(0).getId();
+        var result = itemRepository.findAllByOwnerIdAndIdGreaterThan(ownerId, itemId - 1, page);
+
+        assertThat(result.getContent().size(), equalTo(1));
+        assertThat(result.getContent().get(0).getId(), equalTo(itemId));
+
+        result = itemRepository.findAllByOwnerIdAndIdGreaterThan(ownerId, itemId, page);
+
+        assertThat("isEmpty", result.isEmpty());
+    }
+
+    @Test
+    void verifySearchAvailable() {
+        var text = "дРЕЛЬ";
+        var result = itemRepository.searchAvailable(text, page)
                 .stream()
                 .collect(Collectors.toList());
 
@@ -110,6 +125,36 @@ public class ItemRepositoryTest {
         assertThat(result.size(), equalTo(1));
     }
 
+    @Test
+    void verifySearchAvailableSkipsUnavailableByName() {
+        Item item = new Item();
+        item.setName("Дрель ударная");
+        item.setDescription("Сломана");
+        item.setIsAvailable(Boolean.FALSE);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        var result = itemRepository.searchAvailable("ударная", page)
+                .stream()
+                .collect(Collectors.toList());
+
+        assertThat(result, notNullValue());
+        assertThat(result.size(), equalTo(0));
+    }
+
+    @Test
+    void verifySearchAvailableMatchesWildcardsLiterally() {
+        Item item = new Item();
+        item.setName("Скидка 50%");
+        item.setDescription("Пила_цепная");
+        item.setIsAvailable(Boolean.TRUE);
+        item.setOwner(owner);
+        itemRepository.save(item);
+
+        assertThat(itemRepository.searchAvailable("\\%", page).getContent().size(), equalTo(1));
+        assertThat(itemRepository.searchAvailable("а\\_ц", page).getContent().size(), equalTo(1));
+        assertThat(itemRepository.countAvailable("л\\_"), equalTo(0L));
+    }
+
     @Test
     void verifyFindAllByRequestIdIn() {
         var result = itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId()));
@@ -127,11 +172,25 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    void verifyFindAllByOwnerIdList() {
-        var ownerId = owner.getId();
-        var result = itemRepository.findAllByOwnerId(ownerId);
+    void verifyFindVersionForViewer() {
+        em.flush();
 
-        assertThat(result, notNullValue());
-        assertThat(result.size(), equalTo(1));
+        assertThat(itemRepository.findVersionForViewer(item.getId(), user.getId()).orElseThrow(), equalTo(0L));
+        assertThat(itemRepository.findVersionForViewer(item.getId(), owner.getId()).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void verifyVersionIncrements() {
+        em.flush();
+
+        itemRepository.incrementVersionByUser(user.getId());
+        em.clear();
+
+        assertThat(itemRepository.findVersionForViewer(item.getId(), user.getId()).orElseThrow(), equalTo(1L));
+
+        itemRepository.incrementVersion(item.getId());
+        em.clear();
+
+        assertThat(itemRepository.findVersionForViewer(item.getId(), user.getId()).orElseThrow(), equalTo(2L));
     }
 }
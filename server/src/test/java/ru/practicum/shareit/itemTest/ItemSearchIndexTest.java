@@ -0,0 +1,114 @@
+package ru.practicum.shareit.itemTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.dto.ItemSearchDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    public void createEnvironment() {
+        final ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.streamAvailable())
+                .thenReturn(Stream.of(
+                        new ItemSearchDto(1L, "Дрель", "Простая дрель"),
+                        new ItemSearchDto(2L, "Отвертка", "Аккумуляторная отвертка"),
+                        new ItemSearchDto(3L, "Клей Момент", "Тюбик суперклея марки Момент")));
+        itemSearchIndex = new ItemSearchIndex(itemRepository);
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchIgnoresCase() {
+        assertThat(itemSearchIndex.isReady(), equalTo(true));
+        assertThat(itemSearchIndex.search("дРелЬ"), equalTo(new long[]{1L}));
+        assertThat(itemSearchIndex.search("аккУМУЛЯТОРНАЯ"), equalTo(new long[]{2L}));
+    }
+
+    @Test
+    void searchMatchesSubstringOnly() {
+        assertThat(itemSearchIndex.search("клей"), equalTo(new long[]{3L}));
+        assertThat(itemSearchIndex.search("рель пр"), equalTo(new long[0]));
+        assertThat(itemSearchIndex.search("т"), equalTo(new long[]{1L, 2L, 3L}));
+    }
+
+    @Test
+    void indexUpdatesItem() {
+        final Item item = new Item();
+        item.setId(1L);
+        item.setName("Пила");
+        item.setDescription("Ручная");
+        item.setIsAvailable(Boolean.TRUE);
+        itemSearchIndex.index(item);
+
+        assertThat(itemSearchIndex.search("дрель"), equalTo(new long[0]));
+        assertThat(itemSearchIndex.search("пила"), equalTo(new long[]{1L}));
+
+        item.setIsAvailable(Boolean.FALSE);
+        itemSearchIndex.index(item);
+
+        assertThat(itemSearchIndex.search("пила"), equalTo(new long[0]));
+    }
+
+    @Test
+    void removeDropsItem() {
+        itemSearchIndex.remove(1L);
+
+        assertThat(itemSearchIndex.search("дрель"), equalTo(new long[0]));
+        assertThat(itemSearchIndex.search("т"), equalTo(new long[]{2L, 3L}));
+    }
+
+    @Test
+    void indexWaitsForCommit() {
+        final Item item = new Item();
+        item.setId(4L);
+        item.setName("Пила");
+        item.setDescription("Ручная");
+        item.setIsAvailable(Boolean.TRUE);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(item);
+            item.setName("Топор");
+
+            assertThat(itemSearchIndex.search("пила"), equalTo(new long[0]));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(itemSearchIndex.search("пила"), equalTo(new long[]{4L}));
+    }
+
+    @Test
+    void indexIgnoresRolledBackChanges() {
+        final Item item = new Item();
+        item.setId(4L);
+        item.setName("Пила");
+        item.setDescription("Ручная");
+        item.setIsAvailable(Boolean.TRUE);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(item);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(itemSearchIndex.search("пила"), equalTo(new long[0]));
+    }
+}
@@ -7,9 +7,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
@@ -27,7 +31,6 @@ import java.time.LocalDateTime;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
-import static ru.practicum.shareit.item.ItemMapper.toItem;
 
 @Transactional
 @SpringBootTest(
@@ -40,6 +43,8 @@ public class ItemServiceImplIntegrationTest {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingCalendar bookingCalendar;
     private ItemService itemService;
     private User user;
     private User owner;
@@ -50,7 +55,8 @@ public class ItemServiceImplIntegrationTest {
 
     @BeforeEach
     public void createEnvironment() {
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository,
+                itemSearchIndex, bookingCalendar);
         user = new User();
         user.setName("Серж");
         user.setEmail("12345@mail.ru");
@@ -104,8 +110,7 @@ public class ItemServiceImplIntegrationTest {
     @Test
     void getItemById() {
         var itemResult = itemService.create(owner.getId(), itemDto);
-        var item = toItem(itemResult);
-        item.setId(itemResult.getId());
+        var item = itemRepository.getReferenceById(itemResult.getId());
         booking.setItem(item);
         comment.setItem(item);
         bookingRepository.save(booking);
@@ -121,8 +126,7 @@ public class ItemServiceImplIntegrationTest {
     @Test
     void getAllItem() {
         var itemResult = itemService.create(owner.getId(), itemDto);
-        var item = toItem(itemResult);
-        item.setId(itemResult.getId());
+        var item = itemRepository.getReferenceById(itemResult.getId());
         booking.setItem(item);
         bookingRepository.save(booking);
 
@@ -136,6 +140,10 @@ public class ItemServiceImplIntegrationTest {
     void searchItems() {
         itemService.create(owner.getId(), itemDto);
         var text = "Дрель";
+
+        assertThat(itemService.searchItems(user.getId(), text, PageRequest.of(0, 10)).size(), equalTo(0));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
         var result = itemService.searchItems(user.getId(), text, PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
@@ -145,8 +153,7 @@ public class ItemServiceImplIntegrationTest {
     @Test
     void createComment() {
         var itemResult = itemService.create(owner.getId(), itemDto);
-        var item = toItem(itemResult);
-        item.setId(itemResult.getId());
+        var item = itemRepository.getReferenceById(itemResult.getId());
         booking.setItem(item);
         booking.setStart(LocalDateTime.now().minusDays(4));
         booking.setEnd(LocalDateTime.now().minusDays(2));
@@ -8,12 +8,15 @@ import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -26,13 +29,16 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -49,12 +55,15 @@ public class ItemServiceImplTest {
     private final CommentRepository commentRepository;
     @Mock
     private final ItemRequestRepository itemRequestRepository;
+    @Mock
+    private final ItemSearchIndex itemSearchIndex;
     private ItemService itemService;
     private User user;
 
     @BeforeEach
     public void createEnvironment() {
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository,
+                itemSearchIndex, new BookingCalendar(bookingRepository, 100, Duration.ofMinutes(1), true));
         user = new User();
         user.setId(1L);
         user.setName("Серж");
@@ -62,8 +71,10 @@ public class ItemServiceImplTest {
 
         when(itemRepository.save(any()))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+        when(userRepository.getReferenceById(anyLong()))
+                .thenReturn(user);
     }
 
     @Test
@@ -84,7 +95,7 @@ public class ItemServiceImplTest {
         var result = itemService.create(userId, itemDto);
 
         assertThat(result, notNullValue());
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(1)).existsById(anyLong());
         verify(itemRequestRepository, times(1)).findById(anyLong());
     }
 
@@ -101,7 +112,7 @@ public class ItemServiceImplTest {
         var result = itemService.update(user.getId(), item.getId(), itemDto);
 
         assertThat(result, notNullValue());
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(1)).existsById(anyLong());
         verify(itemRepository, times(1)).findById(anyLong());
     }
 
@@ -123,7 +134,8 @@ public class ItemServiceImplTest {
         booking.setItem(item);
         booking.setStatus(BookingStatus.APPROVED);
         booking.setBooker(booker);
-        when(bookingRepository.findByItem_IdAndStatusIs(anyLong(), any()))
+        when(bookingRepository.findNextByItem(eq(1L),
+                eq(List.of(BookingStatus.APPROVED)), any(), any()))
                 .thenReturn(List.of(booking));
 
         var comment = new Comment();
@@ -136,10 +148,15 @@ public class ItemServiceImplTest {
         var result = itemService.findById(item.getId(), user.getId());
 
         assertThat(result, notNullValue());
-        verify(userRepository, times(1)).findById(anyLong());
+        assertThat(result.getLastBooking(), nullValue());
+        assertThat(result.getNextBooking().getId(), equalTo(booking.getId()));
+        verify(userRepository, times(1)).existsById(anyLong());
         verify(itemRepository, times(1)).findById(anyLong());
         verify(commentRepository, times(1)).findAllByItemId(anyLong());
-        verify(bookingRepository, times(1)).findByItem_IdAndStatusIs(anyLong(), any());
+        verify(bookingRepository, times(1)).findLastByItem(
+                eq(1L), eq(List.of(BookingStatus.APPROVED)), any(), any());
+        verify(bookingRepository, times(1)).findNextByItem(
+                eq(1L), eq(List.of(BookingStatus.APPROVED)), any(), any());
     }
 
     @Test
@@ -160,31 +177,128 @@ public class ItemServiceImplTest {
         booking.setItem(item);
         booking.setStatus(BookingStatus.APPROVED);
         booking.setBooker(booker);
-        when(bookingRepository.findAllByItem_IdInAndStatusIs(anyList(), any()))
+        when(bookingRepository.findNextByItems(anyCollection(), any(), any()))
                 .thenReturn(Collections.emptyList());
 
         var result = itemService.findAll(user.getId(), PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(1)).existsById(anyLong());
         verify(itemRepository, times(1)).findAllByOwnerId(anyLong(), any());
-        verify(bookingRepository, times(1)).findAllByItem_IdInAndStatusIs(anyList(), any());
+        verify(bookingRepository, times(0)).findNextByItems(anyCollection(), any(), any());
+    }
+
+    @Test
+    void getAllItemWithLastAndNextBooking() {
+        var item = new Item();
+        item.setId(1L);
+        item.setOwner(user);
+        var otherItem = new Item();
+        otherItem.setId(2L);
+        otherItem.setOwner(user);
+        when(itemRepository.findAllByOwnerId(anyLong(), any()))
+                .thenReturn(new PageImpl<>(List.of(item, otherItem)));
+
+        var booker = new User();
+        booker.setId(88L);
+        var now = LocalDateTime.now();
+        var current = createBooking(2L, item, booker, now.minusDays(1));
+        var next = createBooking(3L, item, booker, now.plusDays(1));
+        var otherNext = createBooking(5L, otherItem, booker, now.plusDays(2));
+        when(bookingRepository.findLastByItems(anyCollection(), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(current));
+        when(bookingRepository.findNextByItems(anyCollection(), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(otherNext, next));
+
+        var result = itemService.findAll(user.getId(), PageRequest.of(0, 10));
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(0).getLastBooking().getId(), equalTo(current.getId()));
+        assertThat(result.get(0).getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(result.get(1).getLastBooking(), nullValue());
+        assertThat(result.get(1).getNextBooking().getId(), equalTo(otherNext.getId()));
     }
 
     @Test
     void searchItems() {
-        when(itemRepository.findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(
-                anyString(), anyString(), any()))
+        when(itemRepository.searchAvailable(anyString(), any()))
                 .thenReturn(Page.empty());
 
         var result = itemService.searchItems(user.getId(), "Дрель", PageRequest.of(0, 10));
 
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1))
-                .findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(anyString(), anyString(), any());
+        verify(userRepository, times(1)).existsById(anyLong());
+        verify(itemRepository, times(1)).searchAvailable(anyString(), any());
+    }
+
+    @Test
+    void searchItemsEscapesWildcards() {
+        when(itemRepository.searchAvailable(anyString(), any()))
+                .thenReturn(Page.empty());
+
+        itemService.searchItems(user.getId(), "50%_\\", PageRequest.of(0, 10));
+
+        verify(itemRepository, times(1)).searchAvailable(eq("50\\%\\_\\\\"), any());
+    }
+
+    @Test
+    void searchItemsWithIndex() {
+        var first = new Item();
+        first.setId(3L);
+        first.setOwner(user);
+        var second = new Item();
+        second.setId(7L);
+        second.setOwner(user);
+        when(itemSearchIndex.isReady())
+                .thenReturn(true);
+        when(itemSearchIndex.search(anyString()))
+                .thenReturn(new long[]{1L, 3L, 7L});
+        when(itemRepository.findAllByIdIn(anyList()))
+                .thenReturn(List.of(second, first));
+
+        var result = itemService.searchItems(user.getId(), "Дрель", PageRequest.of(1, 2));
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(second.getId()));
+        verify(itemRepository, times(1)).findAllByIdIn(List.of(7L));
+        verify(itemRepository, times(0)).searchAvailable(anyString(), any());
+    }
+
+    @Test
+    void searchItemsWithTotalSearchesIndexOnce() {
+        var item = new Item();
+        item.setId(7L);
+        item.setOwner(user);
+        when(itemSearchIndex.isReady())
+                .thenReturn(true);
+        when(itemSearchIndex.search(anyString()))
+                .thenReturn(new long[]{1L, 3L, 7L});
+        when(itemRepository.findAllByIdIn(anyList()))
+                .thenReturn(List.of(item));
+
+        var result = itemService.searchItemsWithTotal(user.getId(), "Дрель", PageRequest.of(1, 2));
+
+        assertThat(result.getTotal(), equalTo(3L));
+        assertThat(result.getContent().size(), equalTo(1));
+        verify(itemSearchIndex, times(1)).search(anyString());
+        verify(userRepository, times(1)).existsById(anyLong());
+        verify(itemRepository, times(0)).countAvailable(anyString());
+    }
+
+    @Test
+    void searchItemsWithTotalCountsWithoutIndex() {
+        when(itemRepository.searchAvailable(anyString(), any()))
+                .thenReturn(Page.empty());
+        when(itemRepository.countAvailable(anyString()))
+                .thenReturn(4L);
+
+        var result = itemService.searchItemsWithTotal(user.getId(), "Дрель", PageRequest.of(0, 10));
+
+        assertThat(result.getTotal(), equalTo(4L));
+        verify(itemRepository, times(1)).countAvailable(eq("Дрель"));
+        verify(userRepository, times(1)).existsById(anyLong());
     }
 
     @Test
@@ -201,9 +315,20 @@ public class ItemServiceImplTest {
         when(bookingRepository.findByItem_IdAndEndIsBefore(anyLong(), any()))
                 .thenReturn(Collections.emptyList());
 
-        verify(userRepository, times(0)).findById(user.getId());
+        verify(userRepository, times(0)).existsById(user.getId());
         verify(itemRepository, times(0)).findById(anyLong());
         verify(bookingRepository, times(0)).findByItem_IdAndEndIsBefore(anyLong(), any());
         Assertions.assertThrows(NotFoundException.class, () -> itemService.createComment(user.getId(), commentDto, 1L));
     }
+
+    private Booking createBooking(Long id, Item item, User booker, LocalDateTime start) {
+        var booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(12));
+        booking.setItem(item);
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setBooker(booker);
+        return booking;
+    }
 }
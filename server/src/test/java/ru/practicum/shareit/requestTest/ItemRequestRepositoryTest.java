@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -63,4 +64,29 @@ public class ItemRequestRepositoryTest {
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
     }
+
+    @Test
+    void verifyFindAllByRequestorNotAfter() {
+        User other = new User();
+        other.setName("Женя");
+        other.setEmail("54321@mail.ru");
+        userRepository.save(other);
+        var created = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        ItemRequest first = new ItemRequest();
+        first.setDescription("Старая дрель");
+        first.setRequestor(user);
+        first.setCreated(created);
+        itemRequestRepository.save(first);
+        ItemRequest second = new ItemRequest();
+        second.setDescription("Молоток");
+        second.setRequestor(user);
+        second.setCreated(created);
+        itemRequestRepository.save(second);
+        var result = itemRequestRepository.findAllByRequestorNotAfter(other.getId(), created, second.getId(),
+                PageRequest.of(0, 10));
+
+        assertThat(result.getContent().size(), equalTo(1));
+        assertThat(result.getContent().get(0).getId(), equalTo(first.getId()));
+        assertThat(result.hasNext(), equalTo(false));
+    }
 }
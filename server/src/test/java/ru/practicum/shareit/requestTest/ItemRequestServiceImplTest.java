@@ -50,8 +50,8 @@ public class ItemRequestServiceImplTest {
         itemRequestDto = new ItemRequestDto();
         itemRequestDto.setDescription("Новая дрель");
 
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(anyLong()))
+                .thenReturn(user);
         when(itemRequestRepository.save(any()))
                 .thenAnswer(invocation -> invocation.getArgument(0));
         when((userRepository.existsById(anyLong())))
@@ -64,7 +64,7 @@ public class ItemRequestServiceImplTest {
 
         assertThat(result, notNullValue());
         assertThat(result.getDescription(), equalTo(itemRequestDto.getDescription()));
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).existsById(1L);
         verify(itemRequestRepository, times(1)).save(any());
     }
 
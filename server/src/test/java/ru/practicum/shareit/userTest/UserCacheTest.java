@@ -0,0 +1,77 @@
+package ru.practicum.shareit.userTest;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.BeanFactoryCacheOperationSourceAdvisor;
+import org.springframework.transaction.interceptor.BeanFactoryTransactionAttributeSourceAdvisor;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.config.CacheConfig.USERS;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class UserCacheTest {
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final BeanFactoryCacheOperationSourceAdvisor cacheAdvisor;
+    private final BeanFactoryTransactionAttributeSourceAdvisor transactionAdvisor;
+    private Cache cache;
+    private UserDto userDto;
+
+    @BeforeEach
+    public void createEnvironment() {
+        cache = cacheManager.getCache(USERS);
+        userDto = new UserDto();
+        userDto.setName("Кеш");
+        userDto.setEmail("cache@mail.ru");
+    }
+
+    @Test
+    void existsByIdIsCachedAndEvictedOnDelete() {
+        var userId = userService.create(userDto).getId();
+
+        assertThat(userRepository.existsById(userId), equalTo(true));
+        assertThat(cache.get(userId), notNullValue());
+
+        userService.delete(userId);
+
+        assertThat(cache.get(userId), nullValue());
+        assertThat(userRepository.existsById(userId), equalTo(false));
+    }
+
+    @Test
+    void evictionRunsAfterTransactionCommits() {
+        assertThat(cacheAdvisor.getOrder(), lessThan(transactionAdvisor.getOrder()));
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        assertThat(userRepository.existsById(Long.MAX_VALUE), equalTo(false));
+        assertThat(cache.get(Long.MAX_VALUE), nullValue());
+    }
+
+    @Test
+    void updateEvictsUser() {
+        var userId = userService.create(userDto).getId();
+        userRepository.existsById(userId);
+        userDto.setName("Новое имя");
+
+        userService.update(userId, userDto);
+
+        assertThat(cache.get(userId), nullValue());
+        userService.delete(userId);
+    }
+}
@@ -7,11 +7,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCalendar;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.NotFoundExceptionEntity;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.util.EntityCacheEvictor;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -27,11 +32,17 @@ public class UserServiceImplIntegrationTest {
     private UserService userService;
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingCalendar bookingCalendar;
+    private final ItemSearchIndex itemSearchIndex;
+    private final EntityCacheEvictor entityCacheEvictor;
     private UserDto userDto;
 
     @BeforeEach
     public void createEnvironment() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, itemRepository, bookingRepository, bookingCalendar,
+                itemSearchIndex, entityCacheEvictor);
         userDto = new UserDto();
         userDto.setName("Серж");
         userDto.setEmail("12345@mail.ru");
@@ -63,6 +74,8 @@ public class UserServiceImplIntegrationTest {
 
         assertThat(result, notNullValue());
         assertThat(result.getName(), equalTo("Alex"));
+        userRepository.flush();
+        assertThat(userRepository.findById(userId).orElseThrow().getVersion(), equalTo(1L));
     }
 
     @Test
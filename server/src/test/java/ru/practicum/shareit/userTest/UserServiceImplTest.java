@@ -7,13 +7,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingCalendar;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.NotFoundExceptionEntity;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.util.EntityCacheEvictor;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -27,12 +35,23 @@ import static ru.practicum.shareit.user.UserMapper.toUser;
 public class UserServiceImplTest {
     @Mock
     private final UserRepository userRepository;
+    @Mock
+    private final ItemRepository itemRepository;
+    @Mock
+    private final BookingRepository bookingRepository;
+    @Mock
+    private final BookingCalendar bookingCalendar;
+    @Mock
+    private final ItemSearchIndex itemSearchIndex;
+    @Mock
+    private final EntityCacheEvictor entityCacheEvictor;
     private UserService userService;
     private UserDto userDto;
 
     @BeforeEach
     public void createEnvironment() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, itemRepository, bookingRepository, bookingCalendar,
+                itemSearchIndex, entityCacheEvictor);
         userDto = new UserDto();
         userDto.setName("Серж");
         userDto.setEmail("12345@mail.ru");
@@ -76,6 +95,8 @@ public class UserServiceImplTest {
         assertThat(resultUpdate.getName(), equalTo(result.getName()));
         assertThat(resultUpdate.getEmail(), equalTo(result.getEmail()));
         verify(userRepository, times(1)).findById(userId);
+        verify(itemRepository, times(0)).incrementVersionByUser(userId);
+        verify(bookingRepository, times(0)).incrementVersionByBooker(userId);
     }
 
     @Test
@@ -88,4 +109,20 @@ public class UserServiceImplTest {
         assertThat(result, notNullValue());
         assertThat("isEmpty", result.isEmpty());
     }
+
+    @Test
+    void deleteUserRemovesCascadedItemsFromSearchIndex() {
+        when(bookingRepository.findItemIdsByBooker(1L))
+                .thenReturn(List.of(5L));
+        when(itemRepository.findIdsByOwnerOrRequestor(1L))
+                .thenReturn(List.of(3L, 4L));
+
+        userService.delete(1L);
+
+        verify(userRepository, times(1)).deleteById(1L);
+        verify(bookingCalendar, times(1)).evict(List.of(5L));
+        verify(itemSearchIndex, times(1)).remove(3L);
+        verify(itemSearchIndex, times(1)).remove(4L);
+        verify(entityCacheEvictor, times(1)).evict(Item.class, ItemRequest.class);
+    }
 }